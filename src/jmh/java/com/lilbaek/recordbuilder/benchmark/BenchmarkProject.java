@@ -0,0 +1,72 @@
+package com.lilbaek.recordbuilder.benchmark;
+
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.testFramework.EdtTestUtil;
+import com.intellij.testFramework.fixtures.IdeaProjectTestFixture;
+import com.intellij.testFramework.fixtures.IdeaTestFixtureFactory;
+import com.intellij.testFramework.fixtures.JavaCodeInsightTestFixture;
+import com.intellij.testFramework.fixtures.JavaTestFixtureFactory;
+import com.intellij.testFramework.fixtures.TestFixtureBuilder;
+import com.lilbaek.recordbuilder.RecordBuilderTestUtil;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A light project filled with generated annotated records, set up and torn down on the EDT like a light fixture test.
+ * Records are spread over packages of {@link #RECORDS_PER_PACKAGE}, so package lookups stay comparable between the project sizes.
+ */
+final class BenchmarkProject {
+    static final int RECORDS_PER_PACKAGE = 100;
+
+    private final JavaCodeInsightTestFixture fixture;
+
+    BenchmarkProject(@NotNull String name, int records, int components) {
+        final TestFixtureBuilder<IdeaProjectTestFixture> builder = IdeaTestFixtureFactory.getFixtureFactory()
+                        .createLightFixtureBuilder(RecordBuilderTestUtil.JAVA_17, name);
+        fixture = JavaTestFixtureFactory.getFixtureFactory().createCodeInsightFixture(builder.getFixture());
+        EdtTestUtil.runInEdtAndWait(() -> {
+            fixture.setUp();
+            fixture.addClass(RecordBuilderTestUtil.ANNOTATION_SOURCE);
+            for (int i = 0; i < records; i++) {
+                fixture.addFileToProject(getPackageName(i) + "/" + getRecordName(i) + ".java",
+                                RecordBuilderTestUtil.recordSource(getPackageName(i), getRecordName(i), components));
+            }
+        });
+    }
+
+    @NotNull
+    static String getPackageName(int record) {
+        return "p" + record / RECORDS_PER_PACKAGE;
+    }
+
+    @NotNull
+    static String getRecordName(int record) {
+        return "Record" + record;
+    }
+
+    @NotNull
+    static String getBuilderQualifiedName(int record) {
+        return getPackageName(record) + "." + getRecordName(record) + "Builder";
+    }
+
+    @NotNull
+    Project getProject() {
+        return fixture.getProject();
+    }
+
+    @NotNull
+    GlobalSearchScope getScope() {
+        return GlobalSearchScope.allScope(getProject());
+    }
+
+    @NotNull
+    PsiClass findRecord(int record) {
+        return ReadAction.compute(() -> fixture.findClass(getPackageName(record) + "." + getRecordName(record)));
+    }
+
+    void tearDown() {
+        EdtTestUtil.runInEdtAndWait(fixture::tearDown);
+    }
+}
@@ -0,0 +1,99 @@
+package com.lilbaek.recordbuilder.benchmark;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.psi.PsiAnnotation;
+import com.intellij.psi.PsiClass;
+import com.lilbaek.recordbuilder.processor.handler.BuilderHandler;
+import com.lilbaek.recordbuilder.util.PackageUtil;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Heap retained by fully materialised builders, reported per record component as the {@code retainedBytesPerComponent} counter.
+ * The heap is measured after forced collections before and after creating the builders of all records, while the builders are still referenced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class BuilderFootprintBenchmark {
+    private static final int RECORDS = 200;
+
+    @Param({"10", "25", "100"})
+    public int components;
+
+    private BenchmarkProject project;
+    private BuilderHandler builderHandler;
+    private final List<PsiClass> records = new ArrayList<>(RECORDS);
+    private final List<PsiAnnotation> annotations = new ArrayList<>(RECORDS);
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long retainedBytesPerComponent;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            retainedBytesPerComponent = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        project = new BenchmarkProject("BuilderFootprintBenchmark", RECORDS, components);
+        builderHandler = ApplicationManager.getApplication().getService(BuilderHandler.class);
+        for (int i = 0; i < RECORDS; i++) {
+            final PsiClass record = project.findRecord(i);
+            records.add(record);
+            annotations.add(ReadAction.compute(() -> record.getAnnotation(PackageUtil.RECORD_BUILDER_ANNOTATION)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        records.clear();
+        annotations.clear();
+        project.tearDown();
+    }
+
+    @Benchmark
+    public List<PsiClass> materialiseBuilders(Footprint footprint) {
+        final long before = usedHeap();
+        final List<PsiClass> builders = ReadAction.compute(() -> {
+            final List<PsiClass> result = new ArrayList<>(RECORDS);
+            for (int i = 0; i < RECORDS; i++) {
+                final PsiClass builderClass = builderHandler.createBuilderClass(records.get(i), null, annotations.get(i));
+                builderClass.getFields();
+                builderClass.getMethods();
+                result.add(builderClass);
+            }
+            return result;
+        });
+        footprint.retainedBytesPerComponent = (usedHeap() - before) / ((long) RECORDS * components);
+        return builders;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,86 @@
+package com.lilbaek.recordbuilder.benchmark;
+
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hash based collections of the generated methods, the way hierarchy and override checks of the platform hold them.
+ * With a real hash the time grows linearly with the number of components, a constant hash makes it quadratic.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class BuilderMethodHashBenchmark {
+    @Param({"10", "100", "500"})
+    public int components;
+
+    private BenchmarkProject project;
+    private PsiMethod[] methods;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        project = new BenchmarkProject("BuilderMethodHashBenchmark", 1, components);
+        methods = ReadAction.compute(() -> {
+            final PsiClass builderClass = JavaPsiFacade.getInstance(project.getProject()).findClass(BenchmarkProject.getBuilderQualifiedName(0), project.getScope());
+            return null == builderClass ? PsiMethod.EMPTY_ARRAY : builderClass.getMethods();
+        });
+        if (methods.length < components) {
+            throw new IllegalStateException("Builder of " + BenchmarkProject.getRecordName(0) + " was not generated");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        project.tearDown();
+    }
+
+    @Benchmark
+    public int collectAndProbe() {
+        return ReadAction.compute(() -> {
+            final Set<PsiMethod> set = new HashSet<>();
+            for (PsiMethod method : methods) {
+                set.add(method);
+            }
+            int found = 0;
+            for (PsiMethod method : methods) {
+                if (set.contains(method)) {
+                    found++;
+                }
+            }
+            return found;
+        });
+    }
+
+    @Benchmark
+    public int hashCodes() {
+        return ReadAction.compute(() -> {
+            int result = 0;
+            for (PsiMethod method : methods) {
+                result += method.hashCode();
+            }
+            return result;
+        });
+    }
+}
@@ -0,0 +1,106 @@
+package com.lilbaek.recordbuilder.benchmark;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiAnnotation;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiPackage;
+import com.lilbaek.recordbuilder.finder.RecordBuilderFinder;
+import com.lilbaek.recordbuilder.finder.RecordBuilderShortNamesCache;
+import com.lilbaek.recordbuilder.processor.handler.BuilderHandler;
+import com.lilbaek.recordbuilder.util.PackageUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the entry points the IDE calls for builders, run with the gc profiler for the allocation rate.
+ * Lookups cycle through all records, builders of records seen before come from the cache like in the editor.
+ * The largest project is 10,000 records, every record file is added through the fixture in the trial setup and larger ones do not set up in reasonable time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class FinderBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int records;
+
+    @Param({"1", "10", "100"})
+    public int components;
+
+    private BenchmarkProject project;
+    private RecordBuilderFinder finder;
+    private RecordBuilderShortNamesCache shortNamesCache;
+    private BuilderHandler builderHandler;
+    private PsiClass record;
+    private PsiAnnotation annotation;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        project = new BenchmarkProject("FinderBenchmark", records, components);
+        finder = new RecordBuilderFinder();
+        shortNamesCache = new RecordBuilderShortNamesCache(project.getProject());
+        builderHandler = ApplicationManager.getApplication().getService(BuilderHandler.class);
+        record = project.findRecord(records / 2);
+        annotation = ReadAction.compute(() -> record.getAnnotation(PackageUtil.RECORD_BUILDER_ANNOTATION));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        project.tearDown();
+    }
+
+    @Benchmark
+    public PsiClass findClass() {
+        final int index = nextRecord();
+        return ReadAction.compute(() -> finder.findClass(BenchmarkProject.getBuilderQualifiedName(index), project.getScope()));
+    }
+
+    @Benchmark
+    public PsiClass[] getClasses() {
+        final int index = nextRecord();
+        return ReadAction.compute(() -> {
+            final PsiPackage psiPackage = JavaPsiFacade.getInstance(project.getProject()).findPackage(BenchmarkProject.getPackageName(index));
+            return null == psiPackage ? PsiClass.EMPTY_ARRAY : finder.getClasses(psiPackage, project.getScope());
+        });
+    }
+
+    @Benchmark
+    public PsiClass[] getClassesByName() {
+        final int index = nextRecord();
+        return ReadAction.compute(() -> shortNamesCache.getClassesByName(BenchmarkProject.getRecordName(index) + "Builder", project.getScope()));
+    }
+
+    /**
+     * A builder of the same record created from scratch, including its lazily rendered members.
+     */
+    @Benchmark
+    public int createBuilderClass() {
+        return ReadAction.compute(() -> {
+            final PsiClass builderClass = builderHandler.createBuilderClass(record, null, annotation);
+            return builderClass.getFields().length + builderClass.getMethods().length;
+        });
+    }
+
+    private int nextRecord() {
+        next = (next + 1) % records;
+        return next;
+    }
+}
@@ -0,0 +1,64 @@
+package com.lilbaek.recordbuilder.benchmark;
+
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.search.PsiShortNamesCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups of names with stacked builder suffixes, e.g. {@code Record0BuilderBuilder}, through the composite caches the IDE uses.
+ * The cost has to stay flat over the depth, a lookup must neither recurse into itself nor fan out per suffix.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class NestedBuilderNameBenchmark {
+    private static final int RECORDS = 1000;
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int depth;
+
+    private BenchmarkProject project;
+    private String shortName;
+    private String qualifiedName;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        project = new BenchmarkProject("NestedBuilderNameBenchmark", RECORDS, 10);
+        shortName = BenchmarkProject.getRecordName(0) + "Builder".repeat(depth);
+        qualifiedName = BenchmarkProject.getPackageName(0) + "." + shortName;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        project.tearDown();
+    }
+
+    @Benchmark
+    public PsiClass[] getClassesByName() {
+        return ReadAction.compute(() -> PsiShortNamesCache.getInstance(project.getProject()).getClassesByName(shortName, project.getScope()));
+    }
+
+    @Benchmark
+    public PsiClass findClass() {
+        return ReadAction.compute(() -> JavaPsiFacade.getInstance(project.getProject()).findClass(qualifiedName, project.getScope()));
+    }
+}
@@ -0,0 +1,129 @@
+package com.lilbaek.recordbuilder.diagnostic;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms for the operations the IDE calls most often.
+ * Disabled by default, a disabled measurement is a shared no-op instance so the instrumented code only pays for one volatile read.
+ * Enable with {@code -Drecordbuilder.statistics=true} or from the internal "Show Statistics" action.
+ */
+public final class RecordBuilderStatistics {
+    // bucket i counts calls that took less than 2^i microseconds, the last bucket counts everything slower
+    static final int BUCKET_COUNT = 24;
+
+    private static final OperationStatistics[] STATISTICS = new OperationStatistics[Operation.values().length];
+    private static volatile boolean enabled = Boolean.getBoolean("recordbuilder.statistics");
+
+    static {
+        for (Operation operation : Operation.values()) {
+            STATISTICS[operation.ordinal()] = new OperationStatistics();
+        }
+    }
+
+    private RecordBuilderStatistics() {
+    }
+
+    public enum Operation {
+        FINDER_FIND_CLASS("finder.findClass"),
+        FINDER_FIND_CLASSES("finder.findClasses"),
+        FINDER_GET_CLASSES("finder.getClasses"),
+        SHORT_NAMES_GET_CLASSES_BY_NAME("shortNamesCache.getClassesByName"),
+        INVOKER_GET_PSI_CLASS("invoker.getPsiClass"),
+        CREATE_BUILDER_CLASS("builderHandler.createBuilderClass");
+
+        private final String id;
+
+        Operation(@NotNull String id) {
+            this.id = id;
+        }
+
+        @NotNull
+        public String getId() {
+            return id;
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    @NotNull
+    public static Measurement start(@NotNull Operation operation) {
+        return enabled ? new Measurement(operation, System.nanoTime()) : Measurement.NONE;
+    }
+
+    /**
+     * Counts a call of the operation that could not be answered from a cache or returned nothing.
+     */
+    public static void miss(@NotNull Operation operation) {
+        if (enabled) {
+            STATISTICS[operation.ordinal()].misses.increment();
+        }
+    }
+
+    public static void reset() {
+        for (OperationStatistics statistics : STATISTICS) {
+            statistics.reset();
+        }
+    }
+
+    @NotNull
+    static OperationStatistics get(@NotNull Operation operation) {
+        return STATISTICS[operation.ordinal()];
+    }
+
+    public static final class Measurement implements AutoCloseable {
+        private static final Measurement NONE = new Measurement(null, 0);
+
+        private final Operation operation;
+        private final long startNanos;
+
+        private Measurement(Operation operation, long startNanos) {
+            this.operation = operation;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void close() {
+            if (null != operation) {
+                STATISTICS[operation.ordinal()].record(System.nanoTime() - startNanos);
+            }
+        }
+    }
+
+    static final class OperationStatistics {
+        final LongAdder calls = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+
+        private OperationStatistics() {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        private void record(long nanos) {
+            calls.increment();
+            totalNanos.add(nanos);
+            final long micros = nanos / 1000;
+            final int bucket = micros <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(micros);
+            buckets[Math.min(bucket, BUCKET_COUNT - 1)].increment();
+        }
+
+        private void reset() {
+            calls.reset();
+            misses.reset();
+            totalNanos.reset();
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+        }
+    }
+}
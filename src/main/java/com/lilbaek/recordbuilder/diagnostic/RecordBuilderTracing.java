@@ -0,0 +1,59 @@
+package com.lilbaek.recordbuilder.diagnostic;
+
+import com.intellij.diagnostic.telemetry.TraceManager;
+import com.intellij.openapi.util.NotNullLazyValue;
+import com.intellij.psi.PsiClass;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import org.jetbrains.annotations.NonNls;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Nested spans for the stages of resolving a builder, reported through the platform {@link TraceManager}.
+ * Whether spans are recorded and exported is up to the platform telemetry, without an exporter the tracer hands out no-op spans.
+ */
+public final class RecordBuilderTracing {
+    public static final String RECORD_ATTRIBUTE = "recordbuilder.record";
+    public static final String COMPONENTS_ATTRIBUTE = "recordbuilder.components";
+
+    private static final NotNullLazyValue<Tracer> TRACER = NotNullLazyValue.atomicLazy(() -> TraceManager.INSTANCE.getTracer("recordbuilder"));
+
+    private RecordBuilderTracing() {
+    }
+
+    @NotNull
+    public static TraceSpan start(@NonNls @NotNull String name, @Nullable PsiClass record) {
+        return start(name, null == record ? null : record.getQualifiedName());
+    }
+
+    @NotNull
+    public static TraceSpan start(@NonNls @NotNull String name, @Nullable String recordName) {
+        final Span span = TRACER.getValue().spanBuilder(name).startSpan();
+        if (null != recordName) {
+            span.setAttribute(RECORD_ATTRIBUTE, recordName);
+        }
+        return new TraceSpan(span, span.makeCurrent());
+    }
+
+    public static final class TraceSpan implements AutoCloseable {
+        private final Span span;
+        private final Scope scope;
+
+        private TraceSpan(@NotNull Span span, @NotNull Scope scope) {
+            this.span = span;
+            this.scope = scope;
+        }
+
+        public void setComponentCount(int count) {
+            span.setAttribute(COMPONENTS_ATTRIBUTE, count);
+        }
+
+        @Override
+        public void close() {
+            scope.close();
+            span.end();
+        }
+    }
+}
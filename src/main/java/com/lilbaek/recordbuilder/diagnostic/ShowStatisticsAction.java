@@ -0,0 +1,124 @@
+package com.lilbaek.recordbuilder.diagnostic;
+
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.ui.Messages;
+import com.lilbaek.recordbuilder.Bundle;
+import com.lilbaek.recordbuilder.diagnostic.RecordBuilderStatistics.Operation;
+import com.lilbaek.recordbuilder.diagnostic.RecordBuilderStatistics.OperationStatistics;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Internal action showing the collected {@link RecordBuilderStatistics}, they can be dumped as JSON to the log directory.
+ */
+public class ShowStatisticsAction extends AnAction implements DumbAware {
+    private static final Logger LOG = Logger.getInstance(ShowStatisticsAction.class);
+
+    private static final int CLOSE = 0;
+    private static final int DUMP = 1;
+    private static final int RESET = 2;
+    private static final int TOGGLE = 3;
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        final String[] options = {
+                        Bundle.message("statistics.close"),
+                        Bundle.message("statistics.dump"),
+                        Bundle.message("statistics.reset"),
+                        Bundle.message(RecordBuilderStatistics.isEnabled() ? "statistics.disable" : "statistics.enable")
+        };
+        final int choice = Messages.showDialog(e.getProject(), createSummary(), Bundle.message("statistics.title"), options, CLOSE,
+                        Messages.getInformationIcon());
+        switch (choice) {
+            case DUMP -> dump(e);
+            case RESET -> RecordBuilderStatistics.reset();
+            case TOGGLE -> RecordBuilderStatistics.setEnabled(!RecordBuilderStatistics.isEnabled());
+            default -> {
+            }
+        }
+    }
+
+    private static void dump(@NotNull AnActionEvent e) {
+        final Path file = Path.of(PathManager.getLogPath(), "recordbuilder-statistics-" + System.currentTimeMillis() + ".json");
+        try {
+            Files.writeString(file, createJson(), StandardCharsets.UTF_8);
+            Messages.showInfoMessage(e.getProject(), Bundle.message("statistics.dumped", file), Bundle.message("statistics.title"));
+        } catch (IOException ex) {
+            LOG.warn("Could not write " + file, ex);
+            Messages.showErrorDialog(e.getProject(), ex.getMessage(), Bundle.message("statistics.title"));
+        }
+    }
+
+    @NotNull
+    private static String createSummary() {
+        final StringBuilder builder = new StringBuilder();
+        if (!RecordBuilderStatistics.isEnabled()) {
+            builder.append(Bundle.message("statistics.disabled")).append("\n\n");
+        }
+        for (Operation operation : Operation.values()) {
+            final OperationStatistics statistics = RecordBuilderStatistics.get(operation);
+            final long calls = statistics.calls.sum();
+            final long misses = statistics.misses.sum();
+            builder.append(operation.getId())
+                            .append(": calls=").append(calls)
+                            .append(", hit ratio=").append(calls == 0 ? "-" : String.format("%.1f%%", 100.0 * (calls - misses) / calls))
+                            .append(", avg=").append(calls == 0 ? "-" : String.format("%.1fµs", statistics.totalNanos.sum() / 1000.0 / calls))
+                            .append(", p99<").append(percentileMicros(statistics, calls, 0.99)).append("µs")
+                            .append('\n');
+        }
+        return builder.toString();
+    }
+
+    private static long percentileMicros(@NotNull OperationStatistics statistics, long calls, double percentile) {
+        final long limit = (long) Math.ceil(calls * percentile);
+        long count = 0;
+        for (int i = 0; i < statistics.buckets.length; i++) {
+            count += statistics.buckets[i].sum();
+            if (count >= limit) {
+                return 1L << i;
+            }
+        }
+        return 1L << statistics.buckets.length;
+    }
+
+    @NotNull
+    private static String createJson() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("{\n  \"enabled\": ").append(RecordBuilderStatistics.isEnabled()).append(",\n  \"operations\": {");
+        final Operation[] operations = Operation.values();
+        for (int i = 0; i < operations.length; i++) {
+            final OperationStatistics statistics = RecordBuilderStatistics.get(operations[i]);
+            builder.append(i == 0 ? "\n" : ",\n")
+                            .append("    \"").append(operations[i].getId()).append("\": {")
+                            .append("\"calls\": ").append(statistics.calls.sum())
+                            .append(", \"misses\": ").append(statistics.misses.sum())
+                            .append(", \"totalNanos\": ").append(statistics.totalNanos.sum())
+                            .append(", \"histogramMicros\": {");
+            for (int bucket = 0; bucket < statistics.buckets.length; bucket++) {
+                builder.append(bucket == 0 ? "" : ", ");
+                if (bucket == statistics.buckets.length - 1) {
+                    builder.append("\">=").append(1L << (bucket - 1));
+                } else {
+                    builder.append("\"<").append(1L << bucket);
+                }
+                builder.append("\": ").append(statistics.buckets[bucket].sum());
+            }
+            builder.append("}}");
+        }
+        return builder.append("\n  }\n}\n").toString();
+    }
+}
@@ -1,9 +1,24 @@
 package com.lilbaek.recordbuilder.finder;
 
+import com.intellij.lang.java.JavaLanguage;
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.IndexNotReadyException;
+import com.intellij.openapi.roots.ProjectRootModificationTracker;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiAnnotation;
 import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiImportList;
+import com.intellij.psi.PsiJavaCodeReferenceElement;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.lilbaek.recordbuilder.diagnostic.RecordBuilderStatistics;
+import com.lilbaek.recordbuilder.diagnostic.RecordBuilderStatistics.Operation;
+import com.lilbaek.recordbuilder.diagnostic.RecordBuilderTracing;
 import com.lilbaek.recordbuilder.processor.handler.BuilderHandler;
+import com.lilbaek.recordbuilder.util.PackageUtil;
 import com.lilbaek.recordbuilder.util.PsiAnnotationSearchUtil;
 
 import java.util.Optional;
@@ -13,12 +28,67 @@ public class Invoker {
         if (!psiClass.isRecord()) {
             return Optional.empty();
         }
-        final PsiAnnotation psiAnnotation = PsiAnnotationSearchUtil.findAnnotation(psiClass, "com.lilbaek.recordbuilder.RecordBuilder");
-        if (psiAnnotation != null) {
-            final BuilderHandler builderHandler = ApplicationManager.getApplication().getService(BuilderHandler.class);
-            return builderHandler.createBuilderClassIfNotExist(psiClass, null, psiAnnotation);
+        try (RecordBuilderStatistics.Measurement ignored = RecordBuilderStatistics.start(Operation.INVOKER_GET_PSI_CLASS)) {
+            // The builder only depends on the record itself and the types it refers to,
+            // a builder created while indexing is recreated once the indices are ready
+            return CachedValuesManager.getCachedValue(psiClass, () -> CachedValueProvider.Result.create(createPsiClass(psiClass), psiClass,
+                            PsiModificationTracker.getInstance(psiClass.getProject()).forLanguage(JavaLanguage.INSTANCE),
+                            DumbService.getInstance(psiClass.getProject()).getModificationTracker(),
+                            ProjectRootModificationTracker.getInstance(psiClass.getProject())));
+        }
+    }
+
+    private static Optional<PsiClass> createPsiClass(final PsiClass psiClass) {
+        RecordBuilderStatistics.miss(Operation.INVOKER_GET_PSI_CLASS);
+        try (RecordBuilderTracing.TraceSpan ignored = RecordBuilderTracing.start("recordbuilder.builder", psiClass)) {
+            // records of modules without the annotation library can not be annotated, their annotations are not even looked at
+            if (!PackageUtil.hasRecordBuilderPackage(psiClass)) {
+                return Optional.empty();
+            }
+            final PsiAnnotation psiAnnotation = findRecordBuilderAnnotation(psiClass);
+            if (psiAnnotation != null) {
+                final BuilderHandler builderHandler = ApplicationManager.getApplication().getService(BuilderHandler.class);
+                return builderHandler.createBuilderClassIfNotExist(psiClass, null, psiAnnotation);
+            }
+        } catch (IndexNotReadyException e) {
+            // indexing started while the builder was created, it is created again when indexing is done
         }
         return Optional.empty();
     }
 
+    private static PsiAnnotation findRecordBuilderAnnotation(final PsiClass psiClass) {
+        try (RecordBuilderTracing.TraceSpan ignored = RecordBuilderTracing.start("recordbuilder.recordDetection", psiClass)) {
+            if (DumbService.isDumb(psiClass.getProject())) {
+                // annotation references can not be resolved while indexing, records only get here through the snapshot of annotated records
+                final PsiAnnotation psiAnnotation = PsiAnnotationSearchUtil.findAnnotationBySimpleName(psiClass,
+                                StringUtil.getShortName(PackageUtil.RECORD_BUILDER_ANNOTATION));
+                return null != psiAnnotation && refersToRecordBuilderAnnotation(psiAnnotation) ? psiAnnotation : null;
+            }
+            return PsiAnnotationSearchUtil.findAnnotation(psiClass, PackageUtil.RECORD_BUILDER_ANNOTATION);
+        }
+    }
+
+    /**
+     * Tells the annotation apart from others of the same simple name by the text of its name and the imports of its file, without resolving.
+     */
+    private static boolean refersToRecordBuilderAnnotation(final PsiAnnotation psiAnnotation) {
+        final PsiJavaCodeReferenceElement referenceElement = psiAnnotation.getNameReferenceElement();
+        if (null == referenceElement) {
+            return false;
+        }
+        if (referenceElement.isQualified()) {
+            return PackageUtil.RECORD_BUILDER_ANNOTATION.equals(referenceElement.getText());
+        }
+        if (!(psiAnnotation.getContainingFile() instanceof PsiJavaFile javaFile)) {
+            return false;
+        }
+        final String annotationPackage = StringUtil.getPackageName(PackageUtil.RECORD_BUILDER_ANNOTATION);
+        if (annotationPackage.equals(javaFile.getPackageName())) {
+            return true;
+        }
+        final PsiImportList importList = javaFile.getImportList();
+        return null != importList && (null != importList.findSingleClassImportStatement(PackageUtil.RECORD_BUILDER_ANNOTATION)
+                        || null != importList.findOnDemandImportStatement(annotationPackage));
+    }
+
 }
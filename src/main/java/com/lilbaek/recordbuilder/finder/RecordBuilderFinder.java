@@ -1,18 +1,28 @@
 package com.lilbaek.recordbuilder.finder;
 
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Pair;
+import com.intellij.openapi.util.RecursionManager;
+import com.intellij.openapi.util.Ref;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiElementFinder;
 import com.intellij.psi.PsiPackage;
 import com.intellij.psi.search.GlobalSearchScope;
-import com.intellij.psi.search.PsiShortNamesCache;
+import com.lilbaek.recordbuilder.diagnostic.RecordBuilderStatistics;
+import com.lilbaek.recordbuilder.diagnostic.RecordBuilderStatistics.Operation;
+import com.lilbaek.recordbuilder.diagnostic.RecordBuilderTracing;
+import com.lilbaek.recordbuilder.index.RecordBuilderIndex;
+import com.lilbaek.recordbuilder.util.PackageUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Optional;
 
-public class RecordBuilderFinder extends PsiElementFinder {
+public class RecordBuilderFinder extends PsiElementFinder implements DumbAware {
     public static final String BUILDER_SUFFIX = "Builder";
 
     /*
@@ -25,7 +35,13 @@ public class RecordBuilderFinder extends PsiElementFinder {
         if (!qualifiedName.endsWith(BUILDER_SUFFIX)) {
             return null;
         }
-        return getPsiClass(qualifiedName, scope).orElse(null);
+        try (RecordBuilderStatistics.Measurement ignored = RecordBuilderStatistics.start(Operation.FINDER_FIND_CLASS)) {
+            final PsiClass result = getPsiClass(qualifiedName, scope).orElse(null);
+            if (null == result) {
+                RecordBuilderStatistics.miss(Operation.FINDER_FIND_CLASS);
+            }
+            return result;
+        }
     }
 
     @NotNull
@@ -34,42 +50,69 @@ public class RecordBuilderFinder extends PsiElementFinder {
         if (!qualifiedName.endsWith(BUILDER_SUFFIX)) {
             return PsiClass.EMPTY_ARRAY;
         }
-        final Optional<PsiClass> psiClass = getPsiClass(qualifiedName, globalSearchScope);
-        if (psiClass.isPresent()) {
-            return new PsiClass[] { psiClass.get() };
+        try (RecordBuilderStatistics.Measurement ignored = RecordBuilderStatistics.start(Operation.FINDER_FIND_CLASSES)) {
+            final Optional<PsiClass> psiClass = getPsiClass(qualifiedName, globalSearchScope);
+            if (psiClass.isPresent()) {
+                return new PsiClass[] { psiClass.get() };
+            }
+            RecordBuilderStatistics.miss(Operation.FINDER_FIND_CLASSES);
+            return PsiClass.EMPTY_ARRAY;
         }
-        return PsiClass.EMPTY_ARRAY;
     }
 
     @NotNull
     @Override
     public PsiClass @NotNull [] getClasses(@NotNull final PsiPackage psiPackage, @NotNull final GlobalSearchScope scope) {
-        // TODO: Can this be optimized?
-        final var result = new ArrayList<PsiClass>();
-        final PsiShortNamesCache instance = PsiShortNamesCache.getInstance(scope.getProject());
-        for (final String allClassName : instance.getAllClassNames()) {
-            final PsiClass[] classesByName = instance.getClassesByName(allClassName, scope);
-            if (classesByName.length > 0) {
-                if (classesByName[0].isRecord()) {
-                    final Optional<PsiClass> psiClass = getPsiClass(classesByName[0]);
-                    if (psiClass.isPresent()) {
-                        psiClass.ifPresent(result::add);
-                    }
-                }
+        if (!PackageUtil.hasRecordBuilderPackage(psiPackage.getProject())) {
+            return PsiClass.EMPTY_ARRAY;
+        }
+        try (RecordBuilderStatistics.Measurement ignored = RecordBuilderStatistics.start(Operation.FINDER_GET_CLASSES)) {
+            final var result = new ArrayList<PsiClass>();
+            RecordBuilderIndex.processRecords(psiPackage.getProject(), psiPackage.getQualifiedName(), scope, record -> {
+                ProgressManager.checkCanceled();
+                getPsiClass(record).ifPresent(result::add);
+                return true;
+            });
+            if (result.isEmpty()) {
+                RecordBuilderStatistics.miss(Operation.FINDER_GET_CLASSES);
             }
-
+            return result.toArray(PsiClass.EMPTY_ARRAY);
         }
-        return result.toArray(new PsiClass[0]);
     }
 
     private Optional<PsiClass> getPsiClass(final @NotNull String qualifiedName, final @NotNull GlobalSearchScope scope) {
-        final String lookup = getClassName(qualifiedName);
-        final PsiClass[] classesByName = PsiShortNamesCache.getInstance(scope.getProject())
-                        .getClassesByName(lookup, scope);
-        if (classesByName.length > 0) {
-            return getPsiClass(classesByName[0]);
+        final Project project = scope.getProject();
+        if (null == project || !RecordBuilderIndex.isBuilderName(project, StringUtil.getShortName(qualifiedName))) {
+            return Optional.empty();
         }
-        return Optional.empty();
+        if (!PackageUtil.hasRecordBuilderPackage(project)) {
+            return Optional.empty();
+        }
+        final Optional<PsiClass> result = RecursionManager.doPreventingRecursion(getRecursionKey(StringUtil.getShortName(qualifiedName)), false,
+                        () -> findBuilder(project, qualifiedName, scope));
+        return null == result ? Optional.empty() : result;
+    }
+
+    private Optional<PsiClass> findBuilder(final @NotNull Project project, final @NotNull String qualifiedName, final @NotNull GlobalSearchScope scope) {
+        final String packageName = StringUtil.getPackageName(qualifiedName);
+        final String recordName = getClassName(qualifiedName);
+        try (RecordBuilderTracing.TraceSpan ignored = RecordBuilderTracing.start("recordbuilder.finder.lookup",
+                        StringUtil.getQualifiedName(packageName, recordName))) {
+            final Ref<PsiClass> result = Ref.create();
+            RecordBuilderIndex.processBuilderRecords(project, StringUtil.getShortName(qualifiedName), packageName, scope, record -> {
+                final Optional<PsiClass> builderClass = getPsiClass(record).filter(psiClass -> qualifiedName.equals(psiClass.getQualifiedName()));
+                builderClass.ifPresent(result::set);
+                return builderClass.isEmpty();
+            });
+            return Optional.ofNullable(result.get());
+        }
+    }
+
+    /**
+     * Guards the lookup of one builder short name, the same key is used by the {@link RecordBuilderShortNamesCache}.
+     */
+    static Pair<Class<?>, String> getRecursionKey(@NotNull final String builderName) {
+        return Pair.create(RecordBuilderFinder.class, builderName);
     }
 
     private Optional<PsiClass> getPsiClass(final PsiClass psiClass) {
@@ -78,9 +121,6 @@ public class RecordBuilderFinder extends PsiElementFinder {
 
 
     private String getClassName(@NotNull final String qualifiedName) {
-        //System.out.println("Qualified: " + qualifiedName);
-        //System.out.println("Name: " + StringUtil.getShortName(qualifiedName));
-        //System.out.println("Package: " + StringUtil.getPackageName(qualifiedName));
         final String shortName = StringUtil.getShortName(qualifiedName);
         return shortName.substring(0, shortName.lastIndexOf(BUILDER_SUFFIX));
     }
@@ -1,48 +1,93 @@
 package com.lilbaek.recordbuilder.finder;
 
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.RecursionManager;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiField;
 import com.intellij.psi.PsiMethod;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.search.PsiShortNamesCache;
+import com.intellij.util.ArrayUtilRt;
+import com.intellij.util.CommonProcessors;
 import com.intellij.util.Processor;
+import com.intellij.util.indexing.IdFilter;
+import com.lilbaek.recordbuilder.diagnostic.RecordBuilderStatistics;
+import com.lilbaek.recordbuilder.diagnostic.RecordBuilderStatistics.Operation;
+import com.lilbaek.recordbuilder.diagnostic.RecordBuilderTracing;
+import com.lilbaek.recordbuilder.index.RecordBuilderIndex;
+import com.lilbaek.recordbuilder.util.PackageUtil;
 import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
-public class RecordBuilderShortNamesCache extends PsiShortNamesCache {
+public class RecordBuilderShortNamesCache extends PsiShortNamesCache implements DumbAware {
     public static final String BUILDER_SUFFIX = "Builder";
 
+    private final Project project;
+
+    public RecordBuilderShortNamesCache(@NotNull final Project project) {
+        this.project = project;
+    }
+
     @Override
     public @NotNull PsiClass @NotNull [] getClassesByName(@NotNull @NonNls final String qualifiedName, @NotNull final GlobalSearchScope scope) {
-        // System.out.println(qualifiedName);;
-        if (!qualifiedName.endsWith(BUILDER_SUFFIX)) {
-            return new PsiClass[0];
-        }
-        final String factoryClassName = getClassName(qualifiedName);
-        final PsiClass[] classesByName = PsiShortNamesCache.getInstance(scope.getProject())
-                        .getClassesByName(factoryClassName, scope);
-        if (classesByName.length > 0) {
-            final PsiClass psiClass = classesByName[0];
-            if (!psiClass.isRecord()) {
-                return new PsiClass[0];
-            }
-            final Optional<PsiClass> result = Invoker.getPsiClass(psiClass);
-            if (result.isPresent()) {
-                return new PsiClass[] { result.get() };
+        try (RecordBuilderStatistics.Measurement ignored = RecordBuilderStatistics.start(Operation.SHORT_NAMES_GET_CLASSES_BY_NAME)) {
+            final List<PsiClass> result = new ArrayList<>();
+            processClassesWithName(qualifiedName, new CommonProcessors.CollectProcessor<>(result), scope, null);
+            if (result.isEmpty()) {
+                RecordBuilderStatistics.miss(Operation.SHORT_NAMES_GET_CLASSES_BY_NAME);
             }
+            return result.toArray(PsiClass.EMPTY_ARRAY);
+        }
+    }
+
+    @Override
+    public boolean processClassesWithName(@NotNull final String name, @NotNull final Processor<? super PsiClass> processor,
+                    @NotNull final GlobalSearchScope scope, @Nullable final IdFilter filter) {
+        if (!name.endsWith(BUILDER_SUFFIX) || !RecordBuilderIndex.isBuilderName(project, name)) {
+            return true;
         }
-        return new PsiClass[0];
+        if (!PackageUtil.hasRecordBuilderPackage(project)) {
+            return true;
+        }
+        // Generating a builder may resolve types that end up back here for the same name, e.g. FooBuilderBuilder
+        final Boolean completed = RecursionManager.doPreventingRecursion(RecordBuilderFinder.getRecursionKey(name), false,
+                        () -> processBuilders(name, processor, scope));
+        return null == completed || completed;
     }
 
-    private String getClassName(@NotNull final String qualifiedName) {
-        return qualifiedName.substring(0, qualifiedName.lastIndexOf(BUILDER_SUFFIX));
+    private boolean processBuilders(@NotNull final String name, @NotNull final Processor<? super PsiClass> processor,
+                    @NotNull final GlobalSearchScope scope) {
+        // the short name may match records of several packages, every one of them is traced by its qualified name
+        return RecordBuilderIndex.processBuilderRecords(project, name, null, scope, record -> {
+            try (RecordBuilderTracing.TraceSpan ignored = RecordBuilderTracing.start("recordbuilder.finder.lookup", record)) {
+                final Optional<PsiClass> result = Invoker.getPsiClass(record);
+                return result.isEmpty() || processor.process(result.get());
+            }
+        });
     }
 
     @Override
     public @NotNull String @NotNull [] getAllClassNames() {
-        return new String[0];
+        final List<String> result = new ArrayList<>();
+        processAllClassNames(new CommonProcessors.CollectProcessor<>(result));
+        return ArrayUtilRt.toStringArray(result);
+    }
+
+    @Override
+    public boolean processAllClassNames(@NotNull final Processor<? super String> processor) {
+        return processAllClassNames(processor, GlobalSearchScope.allScope(project), null);
+    }
+
+    @Override
+    public boolean processAllClassNames(@NotNull final Processor<? super String> processor, @NotNull final GlobalSearchScope scope,
+                    @Nullable final IdFilter filter) {
+        return RecordBuilderIndex.processBuilderNames(project, scope, filter, processor);
     }
 
     @Override
@@ -65,7 +110,7 @@ public class RecordBuilderShortNamesCache extends PsiShortNamesCache {
     @Override
     public boolean processMethodsWithName(@NonNls @NotNull final String name, @NotNull final GlobalSearchScope scope,
                     @NotNull final Processor<? super PsiMethod> processor) {
-        return false;
+        return true;
     }
 
     @Override
@@ -0,0 +1,392 @@
+package com.lilbaek.recordbuilder.index;
+
+import com.intellij.ide.highlighter.JavaClassFileType;
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiClassOwner;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.compiled.ClsFormatException;
+import com.intellij.psi.impl.compiled.ClsFileImpl;
+import com.intellij.psi.impl.java.stubs.JavaStubElementTypes;
+import com.intellij.psi.impl.java.stubs.PsiAnnotationStub;
+import com.intellij.psi.impl.java.stubs.PsiClassStub;
+import com.intellij.psi.impl.java.stubs.PsiJavaFileStub;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.util.Processor;
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.indexing.DataIndexer;
+import com.intellij.util.indexing.DefaultFileTypeSpecificInputFilter;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileBasedIndexExtension;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.indexing.IdFilter;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import com.lilbaek.recordbuilder.util.PackageUtil;
+import com.lilbaek.recordbuilder.util.PsiAnnotationSearchUtil;
+import com.lilbaek.recordbuilder.util.PsiClassUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps a package name to the simple names of the records in it that carry a {@code @RecordBuilder} annotation.
+ * The same records are also keyed by the short name of their builder, prefixed with {@link #BUILDER_KEY_PREFIX} and mapped to the
+ * qualified record names, so finding the records of one builder name is a keyed lookup and every file is scanned only once.
+ * In sources the annotation is matched by its simple name only, because nothing can be resolved while indexing,
+ * so only files mentioning the annotation package in an import, a qualified name or their own package are looked at.
+ * Compiled records are read from the class file stubs, where the annotation name is always fully qualified.
+ */
+public class RecordBuilderIndex extends FileBasedIndexExtension<String, List<String>> {
+    public static final ID<String, List<String>> NAME = ID.create("com.lilbaek.recordbuilder.RecordBuilderIndex");
+
+    private static final String ANNOTATION_SHORT_NAME = "RecordBuilder";
+    private static final String BUILDER_SUFFIX = "Builder";
+    // cannot start a package name, so builder keys never collide with package keys
+    private static final String BUILDER_KEY_PREFIX = "#";
+    private static final Set<String> ANNOTATION_NAMES = Collections.singleton(ANNOTATION_SHORT_NAME);
+    // keeps records annotated with other annotations of the same simple name, e.g. io.soabase.recordbuilder.core.RecordBuilder, out
+    private static final String ANNOTATION_PACKAGE = StringUtil.getPackageName(PackageUtil.RECORD_BUILDER_ANNOTATION);
+    private static final String ANNOTATION_TEXT = "@" + PackageUtil.RECORD_BUILDER_ANNOTATION;
+    // descriptor of the annotation in the constant pool, only present if the annotation is retained in the class file
+    private static final byte[] ANNOTATION_DESCRIPTOR = ("L" + PackageUtil.RECORD_BUILDER_ANNOTATION.replace('.', '/') + ";").getBytes(StandardCharsets.UTF_8);
+
+    private static final DataExternalizer<List<String>> EXTERNALIZER = new DataExternalizer<>() {
+        @Override
+        public void save(@NotNull DataOutput out, List<String> value) throws IOException {
+            DataInputOutputUtil.writeINT(out, value.size());
+            for (String name : value) {
+                IOUtil.writeUTF(out, name);
+            }
+        }
+
+        @Override
+        public List<String> read(@NotNull DataInput in) throws IOException {
+            final int size = DataInputOutputUtil.readINT(in);
+            final List<String> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                result.add(IOUtil.readUTF(in));
+            }
+            return result;
+        }
+    };
+
+    @Override
+    public @NotNull ID<String, List<String>> getName() {
+        return NAME;
+    }
+
+    @Override
+    public @NotNull DataIndexer<String, List<String>, FileContent> getIndexer() {
+        return inputData -> {
+            final Map<String, List<String>> records = indexRecords(inputData);
+            if (records.isEmpty()) {
+                return Collections.emptyMap();
+            }
+            final Map<String, List<String>> result = new HashMap<>(records);
+            records.forEach((packageName, recordNames) -> {
+                for (String recordName : recordNames) {
+                    result.computeIfAbsent(getBuilderKey(getBuilderClassName(recordName)), name -> new ArrayList<>(1))
+                                    .add(StringUtil.getQualifiedName(packageName, recordName));
+                }
+            });
+            return result;
+        };
+    }
+
+    @NotNull
+    private static String getBuilderKey(@NotNull String builderName) {
+        return BUILDER_KEY_PREFIX + builderName;
+    }
+
+    private static boolean isBuilderKey(@NotNull String key) {
+        return key.startsWith(BUILDER_KEY_PREFIX);
+    }
+
+    /**
+     * The annotated records of a source or class file, keyed by their package.
+     */
+    @NotNull
+    private static Map<String, List<String>> indexRecords(@NotNull FileContent inputData) {
+        if (inputData.getFileType() == JavaClassFileType.INSTANCE) {
+            return indexClassFile(inputData);
+        }
+        final CharSequence text = inputData.getContentAsText();
+        if (!StringUtil.contains(text, ANNOTATION_SHORT_NAME) || !StringUtil.contains(text, ANNOTATION_PACKAGE)) {
+            return Collections.emptyMap();
+        }
+        final PsiFile psiFile = inputData.getPsiFile();
+        if (!(psiFile instanceof PsiJavaFile)) {
+            return Collections.emptyMap();
+        }
+        final PsiJavaFile javaFile = (PsiJavaFile) psiFile;
+        final List<String> records = new ArrayList<>();
+        collectAnnotatedRecords(List.of(javaFile.getClasses()), records);
+        if (records.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return Collections.singletonMap(javaFile.getPackageName(), records);
+    }
+
+    @NotNull
+    private static Map<String, List<String>> indexClassFile(@NotNull FileContent inputData) {
+        final byte[] content = inputData.getContent();
+        if (!containsBytes(content, ANNOTATION_DESCRIPTOR)) {
+            return Collections.emptyMap();
+        }
+        final PsiJavaFileStub fileStub;
+        try {
+            // inner class files are part of the stub of their outer class file and give no stub of their own
+            fileStub = ClsFileImpl.buildFileStub(inputData.getFile(), content);
+        } catch (ClsFormatException e) {
+            return Collections.emptyMap();
+        }
+        if (null == fileStub) {
+            return Collections.emptyMap();
+        }
+        final List<String> records = new ArrayList<>();
+        collectAnnotatedRecords(fileStub, records);
+        if (records.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return Collections.singletonMap(fileStub.getPackageName(), records);
+    }
+
+    private static void collectAnnotatedRecords(@NotNull StubElement<?> stub, @NotNull List<String> result) {
+        for (StubElement<?> child : stub.getChildrenStubs()) {
+            if (child instanceof PsiClassStub<?> classStub) {
+                if (classStub.isRecord() && hasRecordBuilderAnnotation(classStub)) {
+                    result.add(classStub.getName());
+                }
+                collectAnnotatedRecords(classStub, result);
+            }
+        }
+    }
+
+    private static boolean hasRecordBuilderAnnotation(@NotNull PsiClassStub<?> classStub) {
+        final StubElement<?> modifierList = classStub.findChildStubByType(JavaStubElementTypes.MODIFIER_LIST);
+        if (null == modifierList) {
+            return false;
+        }
+        for (StubElement<?> child : modifierList.getChildrenStubs()) {
+            if (child instanceof PsiAnnotationStub annotationStub) {
+                final String text = annotationStub.getText();
+                if (text.startsWith(ANNOTATION_TEXT) && (text.length() == ANNOTATION_TEXT.length() || text.charAt(ANNOTATION_TEXT.length()) == '(')) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsBytes(byte @NotNull [] content, byte @NotNull [] pattern) {
+        outer:
+        for (int i = 0; i <= content.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (content[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static void collectAnnotatedRecords(@NotNull Collection<PsiClass> psiClasses, @NotNull List<String> result) {
+        for (PsiClass psiClass : psiClasses) {
+            if (psiClass.isRecord() && PsiAnnotationSearchUtil.checkAnnotationsSimpleNameExistsIn(psiClass, ANNOTATION_NAMES)) {
+                result.add(psiClass.getName());
+            }
+            collectAnnotatedRecords(PsiClassUtil.collectInnerClassesIntern(psiClass), result);
+        }
+    }
+
+    @Override
+    public @NotNull KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public @NotNull DataExternalizer<List<String>> getValueExternalizer() {
+        return EXTERNALIZER;
+    }
+
+    @Override
+    public int getVersion() {
+        return 4;
+    }
+
+    @Override
+    public FileBasedIndex.@NotNull InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(JavaFileType.INSTANCE, JavaClassFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    /**
+     * Feeds every indexed record of the given package that lies inside the scope to the processor.
+     *
+     * @return false if the processor stopped the iteration
+     */
+    public static boolean processRecords(@NotNull Project project, @NotNull String packageName, @NotNull GlobalSearchScope scope,
+                    @NotNull Processor<? super PsiClass> processor) {
+        return processRecords(project, packageName, null, scope, processor);
+    }
+
+    /**
+     * Feeds the records generating a builder with the given short name to the processor, restricted to one package unless it is null.
+     * Only record files inside the scope are loaded, a lookup from one module never touches the records of modules outside of it.
+     *
+     * @return false if the processor stopped the iteration
+     */
+    public static boolean processBuilderRecords(@NotNull Project project, @NotNull String builderName, @Nullable String packageName,
+                    @NotNull GlobalSearchScope scope, @NotNull Processor<? super PsiClass> processor) {
+        if (DumbService.isDumb(project)) {
+            return RecordBuilderSnapshot.getInstance(project).processBuilderRecords(builderName, packageName, scope, processor);
+        }
+        final PsiManager psiManager = PsiManager.getInstance(project);
+        return FileBasedIndex.getInstance().processValues(NAME, getBuilderKey(builderName), null, (file, qualifiedNames) -> {
+            ProgressManager.checkCanceled();
+            final List<String> recordNames = new ArrayList<>(qualifiedNames.size());
+            for (String qualifiedName : qualifiedNames) {
+                if (null == packageName || packageName.equals(StringUtil.getPackageName(qualifiedName))) {
+                    recordNames.add(StringUtil.getShortName(qualifiedName));
+                }
+            }
+            final PsiFile psiFile = recordNames.isEmpty() ? null : psiManager.findFile(file);
+            if (psiFile instanceof PsiClassOwner) {
+                return processRecords(List.of(((PsiClassOwner) psiFile).getClasses()), recordNames, processor);
+            }
+            return true;
+        }, scope);
+    }
+
+    /**
+     * Feeds the indexed records of the given package to the processor, restricted to the given simple name unless it is null.
+     *
+     * @return false if the processor stopped the iteration
+     */
+    public static boolean processRecords(@NotNull Project project, @NotNull String packageName, @Nullable String recordName,
+                    @NotNull GlobalSearchScope scope, @NotNull Processor<? super PsiClass> processor) {
+        if (DumbService.isDumb(project)) {
+            return RecordBuilderSnapshot.getInstance(project).processRecords(packageName, recordName, scope, processor);
+        }
+        final PsiManager psiManager = PsiManager.getInstance(project);
+        return FileBasedIndex.getInstance().processValues(NAME, packageName, null, (file, recordNames) -> {
+            ProgressManager.checkCanceled();
+            if (null != recordName && !recordNames.contains(recordName)) {
+                return true;
+            }
+            final PsiFile psiFile = psiManager.findFile(file);
+            if (psiFile instanceof PsiClassOwner) {
+                final List<String> wantedNames = null == recordName ? recordNames : Collections.singletonList(recordName);
+                return processRecords(List.of(((PsiClassOwner) psiFile).getClasses()), wantedNames, processor);
+            }
+            return true;
+        }, scope);
+    }
+
+    /**
+     * Feeds the short name of every builder that can be generated inside the scope to the processor.
+     * While the index is not ready the names come from the {@link RecordBuilderSnapshot} of the last session.
+     *
+     * @return false if the processor stopped the iteration
+     */
+    public static boolean processBuilderNames(@NotNull Project project, @NotNull GlobalSearchScope scope, @Nullable IdFilter filter,
+                    @NotNull Processor<? super String> processor) {
+        if (DumbService.isDumb(project)) {
+            return ContainerUtil.process(RecordBuilderSnapshot.getInstance(project).getBuilderNames().keySet(), processor);
+        }
+        return FileBasedIndex.getInstance().processAllKeys(NAME,
+                        key -> !isBuilderKey(key) || processor.process(key.substring(BUILDER_KEY_PREFIX.length())), scope, filter);
+    }
+
+    /**
+     * Cheap negative check for lookups like {@code StringBuilder}: true only if some annotated record produces a builder with this short name.
+     */
+    public static boolean isBuilderName(@NotNull Project project, @NotNull String shortName) {
+        if (DumbService.isDumb(project)) {
+            return RecordBuilderSnapshot.getInstance(project).getBuilderNames().containsKey(shortName);
+        }
+        return !FileBasedIndex.getInstance().processValues(NAME, getBuilderKey(shortName), null, (file, qualifiedNames) -> false,
+                        GlobalSearchScope.allScope(project));
+    }
+
+    /**
+     * All indexed records of the project, as kept by the {@link RecordBuilderSnapshot}.
+     */
+    @NotNull
+    static List<RecordBuilderSnapshot.RecordEntry> collectRecords(@NotNull Project project) {
+        final FileBasedIndex fileBasedIndex = FileBasedIndex.getInstance();
+        final GlobalSearchScope scope = GlobalSearchScope.allScope(project);
+        final List<RecordBuilderSnapshot.RecordEntry> result = new ArrayList<>();
+        for (String packageName : fileBasedIndex.getAllKeys(NAME, project)) {
+            ProgressManager.checkCanceled();
+            if (isBuilderKey(packageName)) {
+                continue;
+            }
+            fileBasedIndex.processValues(NAME, packageName, null, (file, recordNames) -> {
+                for (String recordName : recordNames) {
+                    result.add(new RecordBuilderSnapshot.RecordEntry(packageName, recordName, file.getUrl()));
+                }
+                return true;
+            }, scope);
+        }
+        return result;
+    }
+
+    static void addLocation(@NotNull Map<String, List<RecordLocation>> builderNames, @NotNull RecordLocation location) {
+        builderNames.computeIfAbsent(getBuilderClassName(location.recordName()), name -> new ArrayList<>(1)).add(location);
+    }
+
+    @NotNull
+    static String getBuilderClassName(@NotNull String recordName) {
+        return StringUtil.capitalize(recordName) + BUILDER_SUFFIX;
+    }
+
+    static boolean processRecords(@NotNull Collection<PsiClass> psiClasses, @NotNull List<String> recordNames,
+                    @NotNull Processor<? super PsiClass> processor) {
+        for (PsiClass psiClass : psiClasses) {
+            ProgressManager.checkCanceled();
+            if (psiClass.isRecord() && recordNames.contains(psiClass.getName()) && !processor.process(psiClass)) {
+                return false;
+            }
+            if (!processRecords(PsiClassUtil.collectInnerClassesIntern(psiClass), recordNames, processor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * An annotated record and the file it is declared in, the file is what lookups check against the requested scope.
+     */
+    public record RecordLocation(@NotNull String packageName, @NotNull String recordName, @NotNull VirtualFile file) {
+    }
+}
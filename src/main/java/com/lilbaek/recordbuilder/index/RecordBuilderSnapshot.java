@@ -0,0 +1,173 @@
+package com.lilbaek.recordbuilder.index;
+
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.components.StoragePathMacros;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiClassOwner;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.Processor;
+import com.intellij.util.xmlb.annotations.Attribute;
+import com.intellij.util.xmlb.annotations.Tag;
+import com.intellij.util.xmlb.annotations.XCollection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Annotated records known from the last time indexing finished, kept across restarts and refreshed by the {@link RecordBuilderSnapshotUpdater}.
+ * Used instead of {@link RecordBuilderIndex} while the index is not ready, so builders resolve right after startup.
+ */
+@State(name = "RecordBuilderSnapshot", storages = @Storage(StoragePathMacros.CACHE_FILE))
+public class RecordBuilderSnapshot implements PersistentStateComponent<RecordBuilderSnapshot.SnapshotState> {
+    private final Project project;
+    private volatile SnapshotState state = new SnapshotState();
+    private volatile Map<String, List<RecordBuilderIndex.RecordLocation>> builderNames;
+
+    public RecordBuilderSnapshot(@NotNull Project project) {
+        this.project = project;
+    }
+
+    public static RecordBuilderSnapshot getInstance(@NotNull Project project) {
+        return project.getService(RecordBuilderSnapshot.class);
+    }
+
+    @Override
+    public @NotNull SnapshotState getState() {
+        return state;
+    }
+
+    @Override
+    public void loadState(@NotNull SnapshotState state) {
+        this.state = state;
+        this.builderNames = null;
+    }
+
+    void update(@NotNull List<RecordEntry> records) {
+        if (!records.equals(state.records)) {
+            final SnapshotState newState = new SnapshotState();
+            newState.records = records;
+            loadState(newState);
+        }
+    }
+
+    @NotNull
+    Map<String, List<RecordBuilderIndex.RecordLocation>> getBuilderNames() {
+        Map<String, List<RecordBuilderIndex.RecordLocation>> result = builderNames;
+        if (null == result) {
+            final Map<String, List<RecordBuilderIndex.RecordLocation>> names = new HashMap<>();
+            for (RecordEntry entry : state.records) {
+                final VirtualFile file = VirtualFileManager.getInstance().findFileByUrl(entry.fileUrl);
+                if (null != file) {
+                    RecordBuilderIndex.addLocation(names, new RecordBuilderIndex.RecordLocation(entry.packageName, entry.recordName, file));
+                }
+            }
+            result = Collections.unmodifiableMap(names);
+            builderNames = result;
+        }
+        return result;
+    }
+
+    boolean processBuilderRecords(@NotNull String builderName, @Nullable String packageName, @NotNull GlobalSearchScope scope,
+                    @NotNull Processor<? super PsiClass> processor) {
+        final List<RecordBuilderIndex.RecordLocation> locations = getBuilderNames().get(builderName);
+        if (null == locations) {
+            return true;
+        }
+        final PsiManager psiManager = PsiManager.getInstance(project);
+        for (RecordBuilderIndex.RecordLocation location : locations) {
+            ProgressManager.checkCanceled();
+            if ((null != packageName && !packageName.equals(location.packageName())) || !location.file().isValid() || !scope.contains(location.file())) {
+                continue;
+            }
+            final PsiFile psiFile = psiManager.findFile(location.file());
+            if (psiFile instanceof PsiClassOwner && !RecordBuilderIndex.processRecords(List.of(((PsiClassOwner) psiFile).getClasses()),
+                            Collections.singletonList(location.recordName()), processor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean processRecords(@NotNull String packageName, @Nullable String recordName, @NotNull GlobalSearchScope scope,
+                    @NotNull Processor<? super PsiClass> processor) {
+        final PsiManager psiManager = PsiManager.getInstance(project);
+        for (RecordEntry entry : state.records) {
+            ProgressManager.checkCanceled();
+            if (!packageName.equals(entry.packageName) || (null != recordName && !recordName.equals(entry.recordName))) {
+                continue;
+            }
+            final VirtualFile file = VirtualFileManager.getInstance().findFileByUrl(entry.fileUrl);
+            if (null == file || !scope.contains(file)) {
+                continue;
+            }
+            final PsiFile psiFile = psiManager.findFile(file);
+            if (psiFile instanceof PsiClassOwner && !RecordBuilderIndex.processRecords(List.of(((PsiClassOwner) psiFile).getClasses()),
+                            Collections.singletonList(entry.recordName), processor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static class SnapshotState {
+        @XCollection(style = XCollection.Style.v2)
+        public List<RecordEntry> records = new ArrayList<>();
+    }
+
+    @Tag("record")
+    public static class RecordEntry {
+        @Attribute("package")
+        public String packageName = "";
+        @Attribute("name")
+        public String recordName = "";
+        @Attribute("file")
+        public String fileUrl = "";
+
+        @SuppressWarnings("unused")
+        public RecordEntry() {
+        }
+
+        RecordEntry(@NotNull String packageName, @NotNull String recordName, @NotNull String fileUrl) {
+            this.packageName = packageName;
+            this.recordName = recordName;
+            this.fileUrl = fileUrl;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            RecordEntry that = (RecordEntry) o;
+            return Objects.equals(packageName, that.packageName) && Objects.equals(recordName, that.recordName) && Objects.equals(fileUrl, that.fileUrl);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(packageName, recordName, fileUrl);
+        }
+
+        @Override
+        public String toString() {
+            return StringUtil.getQualifiedName(packageName, recordName) + " in " + fileUrl;
+        }
+    }
+}
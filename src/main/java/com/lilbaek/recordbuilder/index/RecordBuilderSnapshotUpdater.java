@@ -0,0 +1,28 @@
+package com.lilbaek.recordbuilder.index;
+
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Refreshes the {@link RecordBuilderSnapshot} in the background each time indexing finishes.
+ */
+public class RecordBuilderSnapshotUpdater implements DumbService.DumbModeListener {
+    private final Project project;
+
+    public RecordBuilderSnapshotUpdater(@NotNull Project project) {
+        this.project = project;
+    }
+
+    @Override
+    public void exitDumbMode() {
+        ReadAction.nonBlocking(() -> RecordBuilderIndex.collectRecords(project))
+                        .inSmartMode(project)
+                        .expireWith(project)
+                        .coalesceBy(this)
+                        .submit(AppExecutorUtil.getAppExecutorService())
+                        .onSuccess(records -> RecordBuilderSnapshot.getInstance(project).update(records));
+    }
+}
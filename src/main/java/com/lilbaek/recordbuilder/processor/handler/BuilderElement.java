@@ -5,7 +5,6 @@ import com.intellij.psi.PsiMethod;
 import com.intellij.psi.PsiModifier;
 import com.lilbaek.recordbuilder.psi.RLightFieldBuilder;
 import com.lilbaek.recordbuilder.psi.RLightMethodBuilder;
-import com.lilbaek.recordbuilder.util.PsiMethodUtil;
 import org.jetbrains.annotations.NotNull;
 
 import java.text.MessageFormat;
@@ -29,7 +28,6 @@ class BuilderElement implements BuilderElementHandler {
 
     @Override
     public Collection<PsiMethod> renderBuilderMethod(@NotNull BuilderInfo info) {
-        final String blockText = getAllMethodBody(info);
         final String methodName = calcBuilderMethodName(info);
         final RLightMethodBuilder methodBuilder = new RLightMethodBuilder(info.getManager(), methodName)
                         .withContainingClass(info.getBuilderClass())
@@ -38,7 +36,7 @@ class BuilderElement implements BuilderElementHandler {
                         .withNavigationElement(info.getVariable())
                         .withModifier(info.getVisibilityModifier())
                         .withAnnotations(info.getAnnotations());
-        methodBuilder.withBody(PsiMethodUtil.createCodeBlockFromText(blockText, methodBuilder));
+        methodBuilder.withBodyText(() -> getAllMethodBody(info));
         return Collections.singleton(methodBuilder);
     }
 
@@ -1,7 +1,17 @@
 package com.lilbaek.recordbuilder.processor.handler;
 
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.IndexNotReadyException;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.NotNullLazyValue;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiAnnotation;
 import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiCompiledElement;
+import com.intellij.psi.PsiField;
 import com.intellij.psi.PsiMethod;
 import com.intellij.psi.PsiModifier;
 import com.intellij.psi.PsiNameHelper;
@@ -11,11 +21,18 @@ import com.intellij.psi.PsiSubstitutor;
 import com.intellij.psi.PsiType;
 import com.intellij.psi.PsiTypeParameter;
 import com.intellij.psi.PsiTypeParameterListOwner;
+import com.intellij.psi.PsiVariable;
+import com.intellij.psi.impl.file.impl.JavaFileManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.JavaPsiRecordUtil;
+import com.intellij.psi.util.PsiUtil;
+import com.lilbaek.recordbuilder.diagnostic.RecordBuilderStatistics;
+import com.lilbaek.recordbuilder.diagnostic.RecordBuilderTracing;
 import com.lilbaek.recordbuilder.psi.RLightClassBuilder;
 import com.lilbaek.recordbuilder.psi.RLightMethodBuilder;
+import com.lilbaek.recordbuilder.util.GeneratedSourcesUtil;
 import com.lilbaek.recordbuilder.util.ProcessorUtil;
 import com.lilbaek.recordbuilder.util.PsiClassUtil;
-import com.lilbaek.recordbuilder.util.PsiMethodUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -25,13 +42,15 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.StringJoiner;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static com.intellij.openapi.util.text.StringUtil.capitalize;
 import static com.intellij.openapi.util.text.StringUtil.replace;
 
 public class BuilderHandler {
+    private static final Logger LOG = Logger.getInstance(BuilderHandler.class);
+
     private final static String BUILD_METHOD_NAME = "build";
     private final static String BUILDER_METHOD_NAME = "builder";
 
@@ -52,6 +71,13 @@ public class BuilderHandler {
 
     @NotNull
     public PsiClass createBuilderClass(@NotNull PsiClass psiClass, @Nullable PsiMethod psiMethod, @NotNull PsiAnnotation psiAnnotation) {
+        try (RecordBuilderStatistics.Measurement ignored = RecordBuilderStatistics.start(RecordBuilderStatistics.Operation.CREATE_BUILDER_CLASS)) {
+            return doCreateBuilderClass(psiClass, psiMethod, psiAnnotation);
+        }
+    }
+
+    @NotNull
+    private PsiClass doCreateBuilderClass(@NotNull PsiClass psiClass, @Nullable PsiMethod psiMethod, @NotNull PsiAnnotation psiAnnotation) {
         final RLightClassBuilder builderClass;
         if (null != psiMethod) {
             builderClass = createEmptyBuilderClass(psiClass, psiMethod, psiAnnotation);
@@ -59,23 +85,30 @@ public class BuilderHandler {
             builderClass = createEmptyBuilderClass(psiClass, psiAnnotation);
         }
 
+        // fields and methods are rendered from the same builder model, so it is computed only once
+        final NotNullLazyValue<BuilderModel> builderModel = NotNullLazyValue.atomicLazy(
+                        () -> createBuilderInfos(psiAnnotation, psiClass, psiMethod, builderClass));
+
         builderClass.withFieldSupplier(() -> {
-            final List<BuilderInfo> builderInfos = createBuilderInfos(psiAnnotation, psiClass, psiMethod, builderClass);
+            final List<BuilderInfo> builderInfos = builderModel.getValue();
             // create builder Fields
-            return builderInfos.stream()
-                            .map(BuilderInfo::renderBuilderFields)
-                            .flatMap(Collection::stream)
-                            .collect(Collectors.toList());
+            final Collection<PsiField> psiFields = new ArrayList<>(builderInfos.size());
+            for (BuilderInfo builderInfo : builderInfos) {
+                ProgressManager.checkCanceled();
+                psiFields.addAll(builderInfo.renderBuilderFields());
+            }
+            return psiFields;
         });
 
         builderClass.withMethodSupplier(() -> {
             Collection<PsiMethod> psiMethods = new ArrayList<>();
             try {
-                final List<BuilderInfo> builderInfos = createBuilderInfos(psiAnnotation, psiClass, psiMethod, builderClass);
+                final List<BuilderInfo> builderInfos = builderModel.getValue();
                 // create builder methods
-                builderInfos.stream()
-                                .map(BuilderInfo::renderBuilderMethods)
-                                .forEach(psiMethods::addAll);
+                for (BuilderInfo builderInfo : builderInfos) {
+                    ProgressManager.checkCanceled();
+                    psiMethods.addAll(builderInfo.renderBuilderMethods());
+                }
 
                 // create 'build' method
                 final String buildMethodName = getBuildMethodName();
@@ -84,8 +117,11 @@ public class BuilderHandler {
                 // create 'builder' method
                 final String builderMethodName = getBuilderMethodName();
                 psiMethods.add(createBuilderMethod(psiAnnotation, psiClass, psiMethod, builderClass, builderMethodName, builderInfos));
+            } catch (ProcessCanceledException | IndexNotReadyException e) {
+                // the builder is recreated once the cached value is invalidated, a partial method list must not be kept
+                throw e;
             } catch (Exception e) {
-                System.out.println(e);
+                LOG.warn("Could not create builder methods for " + psiClass.getQualifiedName(), e);
             }
             return psiMethods;
         });
@@ -98,6 +134,38 @@ public class BuilderHandler {
         return PsiClassUtil.getInnerClassInternByName(psiClass, builderClassName);
     }
 
+    /**
+     * A builder that already exists as real class: an inner class of the record, a class the annotation processor generated
+     * next to a compiled record or one it wrote into a generated sources root. No light builder is needed for those.
+     */
+    public Optional<PsiClass> getExistBuilderClass(@NotNull PsiClass psiClass, @Nullable PsiMethod psiMethod, @NotNull PsiAnnotation psiAnnotation) {
+        final Optional<PsiClass> innerBuilderClass = getExistInnerBuilderClass(psiClass, psiMethod, psiAnnotation);
+        final Project project = psiClass.getProject();
+        if (innerBuilderClass.isPresent() || DumbService.isDumb(project)) {
+            // the class index is not available while indexing, the cached builder is recreated once it is
+            return innerBuilderClass;
+        }
+        final boolean compiled = psiClass instanceof PsiCompiledElement;
+        final GlobalSearchScope generatedScope = GeneratedSourcesUtil.getGeneratedSourcesScope(project);
+        if (!compiled && null == generatedScope) {
+            return Optional.empty();
+        }
+        final String builderClassQualifiedName = getBuilderClassQualifiedName(psiClass, psiAnnotation, psiMethod);
+        final JavaFileManager javaFileManager = JavaFileManager.getInstance(project);
+        // the builder the annotation processor generated next to a compiled record, looked up in the class index only
+        if (compiled) {
+            final PsiClass compiledBuilderClass = javaFileManager.findClass(builderClassQualifiedName, psiClass.getResolveScope());
+            if (null != compiledBuilderClass) {
+                return Optional.of(compiledBuilderClass);
+            }
+        }
+        // the builder the annotation processor wrote into a generated sources root, e.g. build/generated/sources/annotationProcessor
+        if (null != generatedScope) {
+            return Optional.ofNullable(javaFileManager.findClass(builderClassQualifiedName, generatedScope.intersectWith(psiClass.getResolveScope())));
+        }
+        return Optional.empty();
+    }
+
     PsiType getReturnTypeOfBuildMethod(@NotNull PsiClass psiClass, @Nullable PsiMethod psiMethod) {
         final PsiType result;
         if (null == psiMethod || psiMethod.isConstructor()) {
@@ -145,6 +213,11 @@ public class BuilderHandler {
         return getBuilderClassName(relevantReturnType);
     }
 
+    @NotNull
+    public String getBuilderClassQualifiedName(@NotNull PsiClass psiClass, @NotNull PsiAnnotation psiAnnotation, @Nullable PsiMethod psiMethod) {
+        return StringUtil.getQualifiedName(PsiUtil.getPackageName(psiClass), getBuilderClassName(psiClass, psiAnnotation, psiMethod));
+    }
+
     @NotNull
     String getBuilderClassName(String returnTypeName) {
         final String builderClassNamePattern = "*Builder";
@@ -152,28 +225,29 @@ public class BuilderHandler {
     }
 
     @NotNull
-    private Stream<BuilderInfo> createBuilderInfos(@NotNull PsiClass psiClass, @Nullable PsiMethod psiClassMethod) {
-        final Stream<BuilderInfo> result;
+    private List<? extends PsiVariable> collectBuilderVariables(@NotNull PsiClass psiClass, @Nullable PsiMethod psiClassMethod) {
+        final List<? extends PsiVariable> result;
         if (null != psiClassMethod) {
-            result = Arrays.stream(psiClassMethod.getParameterList().getParameters()).map(BuilderInfo::fromPsiParameter);
+            result = Arrays.asList(psiClassMethod.getParameterList().getParameters());
+        } else if (psiClass.isRecord()) {
+            // record components are stub backed and already in canonical constructor order
+            result = Arrays.asList(psiClass.getRecordComponents());
         } else {
-            result = PsiClassUtil.collectClassFieldsIntern(psiClass).stream().map(BuilderInfo::fromPsiField)
-                            .filter(BuilderInfo::useForBuilder);
+            result = PsiClassUtil.collectClassFieldsIntern(psiClass).stream().filter(BuilderModel::useForBuilder).toList();
         }
         return result;
     }
 
-    public List<BuilderInfo> createBuilderInfos(@NotNull PsiAnnotation psiAnnotation, @NotNull PsiClass psiClass,
+    public BuilderModel createBuilderInfos(@NotNull PsiAnnotation psiAnnotation, @NotNull PsiClass psiClass,
                     @Nullable PsiMethod psiClassMethod, @NotNull PsiClass builderClass) {
-        final PsiSubstitutor builderSubstitutor = getBuilderSubstitutor(psiClass, builderClass);
-        final String accessVisibility = getBuilderInnerAccessVisibility(psiAnnotation);
-        final var builderInfos = createBuilderInfos(psiClass, psiClassMethod).toList();
-        return builderInfos.stream()
-                        .map(info -> info.withSubstitutor(builderSubstitutor))
-                        .map(info -> info.withBuilderClass(builderClass))
-                        .map(info -> info.withVisibilityModifier(accessVisibility))
-                        .map(info -> info.withSetterPrefix(""))
-                        .collect(Collectors.toList());
+        try (RecordBuilderTracing.TraceSpan span = RecordBuilderTracing.start("recordbuilder.model", psiClass)) {
+            final PsiSubstitutor builderSubstitutor = getBuilderSubstitutor(psiClass, builderClass);
+            final String accessVisibility = getBuilderInnerAccessVisibility(psiAnnotation);
+            final BuilderModel result = BuilderModel.create(builderClass, builderSubstitutor, accessVisibility, "",
+                            collectBuilderVariables(psiClass, psiClassMethod));
+            span.setComponentCount(result.size());
+            return result;
+        }
     }
 
 
@@ -190,7 +264,7 @@ public class BuilderHandler {
 
     public Optional<PsiClass> createBuilderClassIfNotExist(@NotNull PsiClass psiClass, @Nullable PsiMethod psiMethod, @NotNull PsiAnnotation psiAnnotation) {
         PsiClass builderClass = null;
-        if (getExistInnerBuilderClass(psiClass, psiMethod, psiAnnotation).isEmpty()) {
+        if (getExistBuilderClass(psiClass, psiMethod, psiAnnotation).isEmpty()) {
             builderClass = createBuilderClass(psiClass, psiMethod, psiAnnotation);
         }
         return Optional.ofNullable(builderClass);
@@ -204,7 +278,7 @@ public class BuilderHandler {
         }
 
         final String builderClassName = getBuilderClassName(psiClass, psiAnnotation, psiMethod);
-        final String builderClassQualifiedName = builderClassName;
+        final String builderClassQualifiedName = getBuilderClassQualifiedName(psiClass, psiAnnotation, psiMethod);
 
         final RLightClassBuilder classBuilder = new RLightClassBuilder(psiClass, builderClassName, builderClassQualifiedName)
                         .withNavigationElement(psiAnnotation)
@@ -222,30 +296,14 @@ public class BuilderHandler {
         final PsiSubstitutor builderSubstitutor = getBuilderSubstitutor(parentClass, builderClass);
         final PsiType returnType = builderSubstitutor.substitute(builderType);
 
-        final String buildMethodPrepare = builderInfos.stream()
-                        .map(BuilderInfo::renderBuildPrepare)
-                        .collect(Collectors.joining());
-
-        final String buildMethodParameters = builderInfos.stream()
-                        .map(BuilderInfo::renderBuildCall)
-                        .collect(Collectors.joining(","));
-
         final RLightMethodBuilder methodBuilder = new RLightMethodBuilder(parentClass.getManager(), buildMethodName)
                         .withMethodReturnType(returnType)
                         .withContainingClass(builderClass)
                         .withNavigationElement(parentClass)
                         .withModifier(PsiModifier.STATIC);
-        final String codeBlockText = createBuildMethodCodeBlockText(psiMethod, builderClass, returnType, buildMethodPrepare, buildMethodParameters);
-        methodBuilder.withBody(PsiMethodUtil.createCodeBlockFromText(codeBlockText, methodBuilder));
-
-        Optional<PsiMethod> definedConstructor = Optional.ofNullable(psiMethod);
-        if (definedConstructor.isEmpty()) {
-            final Collection<PsiMethod> classConstructors = PsiClassUtil.collectClassConstructorIntern(parentClass);
-            definedConstructor = classConstructors.stream()
-                            .filter(m -> sameParameters(m.getParameterList().getParameters(), builderInfos))
-                            .findFirst();
-        }
-        definedConstructor.map(PsiMethod::getThrowsList).map(PsiReferenceList::getReferencedTypes).map(Arrays::stream)
+        methodBuilder.withBodyText(() -> createBuildMethodCodeBlockText(psiMethod, builderClass, returnType, builderInfos));
+
+        findDefinedConstructor(parentClass, psiMethod, builderInfos).map(PsiMethod::getThrowsList).map(PsiReferenceList::getReferencedTypes).map(Arrays::stream)
                         .ifPresent(stream -> stream.forEach(methodBuilder::withException));
 
         return methodBuilder;
@@ -259,35 +317,33 @@ public class BuilderHandler {
         final PsiSubstitutor builderSubstitutor = getBuilderSubstitutor(parentClass, builderClass);
         final PsiType returnType = builderSubstitutor.substitute(builderType);
 
-        final String buildMethodPrepare = builderInfos.stream()
-                        .map(BuilderInfo::renderBuildPrepare)
-                        .collect(Collectors.joining());
-
-        final String buildMethodParameters = builderInfos.stream()
-                        .map(BuilderInfo::renderBuildCall)
-                        .collect(Collectors.joining(","));
-
         final RLightMethodBuilder methodBuilder = new RLightMethodBuilder(parentClass.getManager(), buildMethodName)
                         .withMethodReturnType(returnType)
                         .withContainingClass(builderClass)
                         .withNavigationElement(parentClass)
                         .withModifier(getBuilderInnerAccessVisibility(psiAnnotation));
-        final String codeBlockText = createBuildMethodCodeBlockText(psiMethod, builderClass, returnType, buildMethodPrepare, buildMethodParameters);
-        methodBuilder.withBody(PsiMethodUtil.createCodeBlockFromText(codeBlockText, methodBuilder));
-
-        Optional<PsiMethod> definedConstructor = Optional.ofNullable(psiMethod);
-        if (definedConstructor.isEmpty()) {
-            final Collection<PsiMethod> classConstructors = PsiClassUtil.collectClassConstructorIntern(parentClass);
-            definedConstructor = classConstructors.stream()
-                            .filter(m -> sameParameters(m.getParameterList().getParameters(), builderInfos))
-                            .findFirst();
-        }
-        definedConstructor.map(PsiMethod::getThrowsList).map(PsiReferenceList::getReferencedTypes).map(Arrays::stream)
+        methodBuilder.withBodyText(() -> createBuildMethodCodeBlockText(psiMethod, builderClass, returnType, builderInfos));
+
+        findDefinedConstructor(parentClass, psiMethod, builderInfos).map(PsiMethod::getThrowsList).map(PsiReferenceList::getReferencedTypes).map(Arrays::stream)
                         .ifPresent(stream -> stream.forEach(methodBuilder::withException));
 
         return methodBuilder;
     }
 
+    private Optional<PsiMethod> findDefinedConstructor(@NotNull PsiClass parentClass, @Nullable PsiMethod psiMethod, List<BuilderInfo> builderInfos) {
+        if (null != psiMethod) {
+            return Optional.of(psiMethod);
+        }
+        if (parentClass.isRecord()) {
+            // the canonical constructor is found from the record stubs, without checking assignability of every component type
+            return Optional.ofNullable(JavaPsiRecordUtil.findCanonicalConstructor(parentClass));
+        }
+        final Collection<PsiMethod> classConstructors = PsiClassUtil.collectClassConstructorIntern(parentClass);
+        return classConstructors.stream()
+                        .filter(m -> sameParameters(m.getParameterList().getParameters(), builderInfos))
+                        .findFirst();
+    }
+
     private boolean sameParameters(PsiParameter[] parameters, List<BuilderInfo> builderInfos) {
         if (parameters.length != builderInfos.size()) {
             return false;
@@ -303,6 +359,20 @@ public class BuilderHandler {
         return true;
     }
 
+    @NotNull
+    private String createBuildMethodCodeBlockText(@Nullable PsiMethod psiMethod, @NotNull PsiClass psiClass, @NotNull PsiType buildMethodReturnType,
+                    @NotNull List<BuilderInfo> builderInfos) {
+        final StringBuilder buildMethodPrepare = new StringBuilder();
+        final StringJoiner buildMethodParameters = new StringJoiner(",");
+        for (BuilderInfo builderInfo : builderInfos) {
+            ProgressManager.checkCanceled();
+            buildMethodPrepare.append(builderInfo.renderBuildPrepare());
+            buildMethodParameters.add(builderInfo.renderBuildCall());
+        }
+
+        return createBuildMethodCodeBlockText(psiMethod, psiClass, buildMethodReturnType, buildMethodPrepare.toString(), buildMethodParameters.toString());
+    }
+
     @NotNull
     private String createBuildMethodCodeBlockText(@Nullable PsiMethod psiMethod, @NotNull PsiClass psiClass, @NotNull PsiType buildMethodReturnType,
                     @NotNull String buildMethodPrepare, @NotNull String buildMethodParameters) {
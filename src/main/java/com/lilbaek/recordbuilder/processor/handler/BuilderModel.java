@@ -0,0 +1,140 @@
+package com.lilbaek.recordbuilder.processor.handler;
+
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiField;
+import com.intellij.psi.PsiModifier;
+import com.intellij.psi.PsiModifierList;
+import com.intellij.psi.PsiSubstitutor;
+import com.intellij.psi.PsiType;
+import com.intellij.psi.PsiVariable;
+import com.intellij.psi.impl.PsiImplUtil;
+import com.lilbaek.recordbuilder.processor.field.AccessorsInfo;
+import com.lilbaek.recordbuilder.util.PsiAnnotationSearchUtil;
+import com.lilbaek.recordbuilder.util.PsiClassUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable model of one builder. Everything shared by the components is stored once, the per component data lives in
+ * parallel arrays and {@link BuilderInfo} is only a view on one index of them.
+ */
+public final class BuilderModel extends AbstractList<BuilderInfo> implements RandomAccess {
+    private static final BuilderElementHandler ELEMENT_HANDLER = new BuilderElement();
+
+    private final PsiClass builderClass;
+    private final PsiType builderClassType;
+    private final String visibilityModifier;
+    private final String setterPrefix;
+
+    private final PsiVariable[] variables;
+    private final PsiType[] fieldTypes;
+    private final String[] fieldNames;
+    private final BitSet deprecated;
+
+    private BuilderModel(@NotNull PsiClass builderClass, @NotNull String visibilityModifier, @NotNull String setterPrefix, int size) {
+        this.builderClass = builderClass;
+        this.builderClassType = PsiClassUtil.getTypeWithGenerics(builderClass);
+        this.visibilityModifier = visibilityModifier;
+        this.setterPrefix = setterPrefix;
+        this.variables = new PsiVariable[size];
+        this.fieldTypes = new PsiType[size];
+        this.fieldNames = new String[size];
+        this.deprecated = new BitSet(size);
+    }
+
+    @NotNull
+    public static BuilderModel create(@NotNull PsiClass builderClass, @NotNull PsiSubstitutor builderSubstitutor,
+                    @NotNull @PsiModifier.ModifierConstant String visibilityModifier, @NotNull String setterPrefix,
+                    @NotNull List<? extends PsiVariable> variables) {
+        final BuilderModel result = new BuilderModel(builderClass, visibilityModifier, setterPrefix, variables.size());
+        for (int i = 0; i < variables.size(); i++) {
+            ProgressManager.checkCanceled();
+            final PsiVariable variable = variables.get(i);
+            result.variables[i] = variable;
+            result.fieldTypes[i] = builderSubstitutor.substitute(variable.getType());
+            result.fieldNames[i] = getFieldName(variable);
+            result.deprecated.set(i, isDeprecated(variable));
+        }
+        return result;
+    }
+
+    /**
+     * Static fields and initialized final fields can not be set through a builder.
+     */
+    public static boolean useForBuilder(@NotNull PsiField psiField) {
+        final PsiModifierList modifierList = psiField.getModifierList();
+        if (null == modifierList) {
+            return true;
+        }
+        if (modifierList.hasModifierProperty(PsiModifier.STATIC)) {
+            return false;
+        }
+        return null == psiField.getInitializer() || !modifierList.hasModifierProperty(PsiModifier.FINAL);
+    }
+
+    @NotNull
+    private static String getFieldName(@NotNull PsiVariable variable) {
+        if (variable instanceof PsiField) {
+            return AccessorsInfo.build((PsiField) variable).removePrefix(variable.getName());
+        }
+        return variable.getName();
+    }
+
+    private static boolean isDeprecated(@NotNull PsiVariable variable) {
+        if (variable instanceof PsiField && PsiImplUtil.isDeprecatedByDocTag((PsiField) variable)) {
+            return true;
+        }
+        return PsiAnnotationSearchUtil.isAnnotatedWith(variable, Deprecated.class.getName());
+    }
+
+    @Override
+    public BuilderInfo get(int index) {
+        return new BuilderInfo(this, index);
+    }
+
+    @Override
+    public int size() {
+        return variables.length;
+    }
+
+    BuilderElementHandler getElementHandler() {
+        return ELEMENT_HANDLER;
+    }
+
+    PsiClass getBuilderClass() {
+        return builderClass;
+    }
+
+    PsiType getBuilderType() {
+        return builderClassType;
+    }
+
+    String getVisibilityModifier() {
+        return visibilityModifier;
+    }
+
+    String getSetterPrefix() {
+        return setterPrefix;
+    }
+
+    PsiVariable getVariable(int index) {
+        return variables[index];
+    }
+
+    PsiType getFieldType(int index) {
+        return fieldTypes[index];
+    }
+
+    String getFieldName(int index) {
+        return fieldNames[index];
+    }
+
+    boolean isDeprecated(int index) {
+        return deprecated.get(index);
+    }
+}
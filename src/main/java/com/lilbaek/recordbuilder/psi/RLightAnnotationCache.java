@@ -0,0 +1,32 @@
+package com.lilbaek.recordbuilder.psi;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiAnnotation;
+import org.jetbrains.annotations.NonNls;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Annotations copied onto generated members carry no attributes, so one parsed instance per qualified name is shared by all of them.
+ */
+public class RLightAnnotationCache {
+    private final Project myProject;
+    private final Map<String, PsiAnnotation> myAnnotations = new ConcurrentHashMap<>();
+
+    public RLightAnnotationCache(@NotNull Project project) {
+        myProject = project;
+    }
+
+    public static RLightAnnotationCache getInstance(@NotNull Project project) {
+        return project.getService(RLightAnnotationCache.class);
+    }
+
+    @NotNull
+    public PsiAnnotation getAnnotation(@NotNull @NonNls String qualifiedName) {
+        return myAnnotations.computeIfAbsent(qualifiedName,
+                        name -> JavaPsiFacade.getElementFactory(myProject).createAnnotationFromText('@' + name, null));
+    }
+}
@@ -1,5 +1,6 @@
 package com.lilbaek.recordbuilder.psi;
 
+import com.intellij.openapi.util.NotNullLazyValue;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiClassType;
@@ -29,20 +30,20 @@ import java.util.stream.Stream;
 public class RLightClassBuilder extends LightPsiClassBuilder implements PsiExtensibleClass, SyntheticElement {
 
     private final String myQualifiedName;
+    private final PsiClass myRecord;
     private final Icon myBaseIcon;
     private final RLightModifierList myModifierList;
 
     private boolean myIsEnum;
-    private PsiField[] myFields;
-    private PsiMethod[] myMethods;
-
-    private Supplier<? extends Collection<PsiField>> fieldSupplier = Collections::emptyList;
-    private Supplier<? extends Collection<PsiMethod>> methodSupplier = Collections::emptyList;
+    // computed at most once even when several threads resolve the builder at the same time
+    private volatile NotNullLazyValue<PsiField[]> myFields = NotNullLazyValue.lazy(() -> PsiField.EMPTY_ARRAY);
+    private volatile NotNullLazyValue<PsiMethod[]> myMethods = NotNullLazyValue.lazy(() -> PsiMethod.EMPTY_ARRAY);
 
     public RLightClassBuilder(@NotNull PsiElement context, @NotNull String simpleName, @NotNull String qualifiedName) {
         super(context, simpleName);
         myIsEnum = false;
         myQualifiedName = qualifiedName;
+        myRecord = context instanceof PsiClass ? (PsiClass) context : null;
         myBaseIcon = Icons.CLASS_ICON;
         myModifierList = new RLightModifierList(context.getManager(), context.getLanguage());
     }
@@ -72,6 +73,14 @@ public class RLightClassBuilder extends LightPsiClassBuilder implements PsiExten
         return myQualifiedName;
     }
 
+    /**
+     * The record this builder is generated for, {@code null} when the builder was created for another context.
+     */
+    @Nullable
+    public PsiClass getRecord() {
+        return myRecord;
+    }
+
     @Override
     public Icon getElementIcon(final int flags) {
         return myBaseIcon;
@@ -98,22 +107,12 @@ public class RLightClassBuilder extends LightPsiClassBuilder implements PsiExten
 
     @Override
     public PsiField @NotNull [] getFields() {
-        if (null == myFields) {
-            Collection<PsiField> generatedFields = fieldSupplier.get();
-            myFields = generatedFields.toArray(PsiField.EMPTY_ARRAY);
-            fieldSupplier = Collections::emptyList;
-        }
-        return myFields;
+        return myFields.getValue();
     }
 
     @Override
     public PsiMethod @NotNull [] getMethods() {
-        if (null == myMethods) {
-            Collection<PsiMethod> generatedMethods = methodSupplier.get();
-            myMethods = generatedMethods.toArray(PsiMethod.EMPTY_ARRAY);
-            methodSupplier = Collections::emptyList;
-        }
-        return myMethods;
+        return myMethods.getValue();
     }
 
     @Override
@@ -132,12 +131,12 @@ public class RLightClassBuilder extends LightPsiClassBuilder implements PsiExten
     }
 
     public RLightClassBuilder withFieldSupplier(final Supplier<? extends Collection<PsiField>> fieldSupplier) {
-        this.fieldSupplier = fieldSupplier;
+        myFields = NotNullLazyValue.atomicLazy(() -> fieldSupplier.get().toArray(PsiField.EMPTY_ARRAY));
         return this;
     }
 
     public RLightClassBuilder withMethodSupplier(final Supplier<? extends Collection<PsiMethod>> methodSupplier) {
-        this.methodSupplier = methodSupplier;
+        myMethods = NotNullLazyValue.atomicLazy(() -> methodSupplier.get().toArray(PsiMethod.EMPTY_ARRAY));
         return this;
     }
 
@@ -2,6 +2,7 @@ package com.lilbaek.recordbuilder.psi;
 
 import com.intellij.lang.ASTNode;
 import com.intellij.lang.java.JavaLanguage;
+import com.intellij.openapi.progress.ProcessCanceledException;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.psi.JavaPsiFacade;
 import com.intellij.psi.PsiClass;
@@ -24,18 +25,29 @@ import com.intellij.psi.impl.CheckUtil;
 import com.intellij.psi.impl.light.LightMethodBuilder;
 import com.intellij.psi.impl.light.LightModifierList;
 import com.intellij.psi.impl.light.LightTypeParameterListBuilder;
+import com.intellij.reference.SoftReference;
 import com.intellij.util.IncorrectOperationException;
+import com.lilbaek.recordbuilder.diagnostic.RecordBuilderTracing;
 import com.lilbaek.recordbuilder.icon.Icons;
+import com.lilbaek.recordbuilder.util.PsiMethodUtil;
 import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Objects;
+import java.util.function.Supplier;
 
 public class RLightMethodBuilder extends LightMethodBuilder implements SyntheticElement {
-    private PsiMethod myMethod;
-    private ASTNode myASTNode;
-    private PsiCodeBlock myBodyCodeBlock;
+    // text of the method is rendered once, the parsed copy may be collected and is reparsed from that text when needed again,
+    // both are only written while holding myLock
+    private String myMethodText;
+    private volatile SoftReference<PsiMethod> myMethod;
+    // once its node was handed out the parsed copy is kept, so the node of this method stays the same for its whole lifetime
+    private volatile PsiMethod myPinnedMethod;
+    // parsed at most once even when several threads ask for the body at the same time
+    private volatile PsiCodeBlock myBodyCodeBlock;
+    private final Object myLock = new Object();
+    private Supplier<String> myBodyTextSupplier;
     // used to simplify comparing of returnType in equal method
     private String myReturnTypeAsText;
 
@@ -118,6 +130,16 @@ public class RLightMethodBuilder extends LightMethodBuilder implements Synthetic
 
     public RLightMethodBuilder withBody(@NotNull PsiCodeBlock codeBlock) {
         myBodyCodeBlock = codeBlock;
+        myBodyTextSupplier = null;
+        return this;
+    }
+
+    /**
+     * The body text is only rendered and parsed when {@link #getBody()} is called, resolve and completion never need it.
+     */
+    public RLightMethodBuilder withBodyText(@NotNull Supplier<String> bodyTextSupplier) {
+        myBodyCodeBlock = null;
+        myBodyTextSupplier = bodyTextSupplier;
         return this;
     }
 
@@ -141,7 +163,25 @@ public class RLightMethodBuilder extends LightMethodBuilder implements Synthetic
 
     @Override
     public PsiCodeBlock getBody() {
-        return myBodyCodeBlock;
+        PsiCodeBlock result = myBodyCodeBlock;
+        if (null == result && null != myBodyTextSupplier) {
+            synchronized (myLock) {
+                result = myBodyCodeBlock;
+                if (null == result) {
+                    try (RecordBuilderTracing.TraceSpan ignored = RecordBuilderTracing.start("recordbuilder.parse", getRecord())) {
+                        result = PsiMethodUtil.createCodeBlockFromText(myBodyTextSupplier.get(), this);
+                        myBodyCodeBlock = result;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @Nullable
+    private PsiClass getRecord() {
+        final PsiClass containingClass = getContainingClass();
+        return containingClass instanceof RLightClassBuilder ? ((RLightClassBuilder) containingClass).getRecord() : containingClass;
     }
 
     @Override
@@ -174,11 +214,12 @@ public class RLightMethodBuilder extends LightMethodBuilder implements Synthetic
 
     @Override
     public ASTNode getNode() {
-        if (null == myASTNode) {
-            final PsiElement myPsiMethod = getOrCreateMyPsiMethod();
-            myASTNode = null == myPsiMethod ? null : myPsiMethod.getNode();
+        final PsiMethod myPsiMethod = getOrCreateMyPsiMethod();
+        if (null == myPsiMethod) {
+            return null;
         }
-        return myASTNode;
+        myPinnedMethod = myPsiMethod;
+        return myPsiMethod.getNode();
     }
 
     @Override
@@ -197,32 +238,45 @@ public class RLightMethodBuilder extends LightMethodBuilder implements Synthetic
         return builder.toString();
     }
 
+    private String renderMethodText() {
+        final StringBuilder methodTextDeclaration = new StringBuilder();
+        methodTextDeclaration.append(getAllModifierProperties((LightModifierList) getModifierList()));
+        PsiType returnType = getReturnType();
+        if (null != returnType && returnType.isValid()) {
+            methodTextDeclaration.append(returnType.getCanonicalText()).append(' ');
+        }
+        methodTextDeclaration.append(getName());
+        methodTextDeclaration.append('(');
+        if (getParameterList().getParametersCount() > 0) {
+            for (PsiParameter parameter : getParameterList().getParameters()) {
+                methodTextDeclaration.append(parameter.getType().getCanonicalText()).append(' ').append(parameter.getName()).append(',');
+            }
+            methodTextDeclaration.deleteCharAt(methodTextDeclaration.length() - 1);
+        }
+        methodTextDeclaration.append(')');
+        // the body goes straight into the template, so the method is parsed in one go
+        if (null != myBodyTextSupplier) {
+            methodTextDeclaration.append('{').append(myBodyTextSupplier.get()).append('}');
+        } else if (null != myBodyCodeBlock) {
+            methodTextDeclaration.append(myBodyCodeBlock.getText());
+        } else {
+            methodTextDeclaration.append('{').append("  ").append('}');
+        }
+        return methodTextDeclaration.toString();
+    }
+
     private PsiMethod rebuildMethodFromString() {
         PsiMethod result;
         try {
-            final StringBuilder methodTextDeclaration = new StringBuilder();
-            methodTextDeclaration.append(getAllModifierProperties((LightModifierList) getModifierList()));
-            PsiType returnType = getReturnType();
-            if (null != returnType && returnType.isValid()) {
-                methodTextDeclaration.append(returnType.getCanonicalText()).append(' ');
-            }
-            methodTextDeclaration.append(getName());
-            methodTextDeclaration.append('(');
-            if (getParameterList().getParametersCount() > 0) {
-                for (PsiParameter parameter : getParameterList().getParameters()) {
-                    methodTextDeclaration.append(parameter.getType().getCanonicalText()).append(' ').append(parameter.getName()).append(',');
-                }
-                methodTextDeclaration.deleteCharAt(methodTextDeclaration.length() - 1);
+            if (null == myMethodText) {
+                myMethodText = renderMethodText();
             }
-            methodTextDeclaration.append(')');
-            methodTextDeclaration.append('{').append("  ").append('}');
-
-            final PsiElementFactory elementFactory = JavaPsiFacade.getElementFactory(getManager().getProject());
-
-            result = elementFactory.createMethodFromText(methodTextDeclaration.toString(), getContainingClass());
-            if (null != getBody()) {
-                result.getBody().replace(getBody());
+            try (RecordBuilderTracing.TraceSpan ignored = RecordBuilderTracing.start("recordbuilder.parse", getRecord())) {
+                final PsiElementFactory elementFactory = JavaPsiFacade.getElementFactory(getManager().getProject());
+                result = elementFactory.createMethodFromText(myMethodText, getContainingClass());
             }
+        } catch (ProcessCanceledException ex) {
+            throw ex;
         } catch (Exception ex) {
             result = null;
         }
@@ -235,11 +289,23 @@ public class RLightMethodBuilder extends LightMethodBuilder implements Synthetic
         return null == myPsiMethod ? null : myPsiMethod.copy();
     }
 
-    private PsiElement getOrCreateMyPsiMethod() {
-        if (null == myMethod) {
-            myMethod = rebuildMethodFromString();
+    private PsiMethod getOrCreateMyPsiMethod() {
+        PsiMethod result = getMyPsiMethod();
+        if (null == result) {
+            synchronized (myLock) {
+                result = getMyPsiMethod();
+                if (null == result) {
+                    result = rebuildMethodFromString();
+                    myMethod = null == result ? null : new SoftReference<>(result);
+                }
+            }
         }
-        return myMethod;
+        return result;
+    }
+
+    private PsiMethod getMyPsiMethod() {
+        final PsiMethod pinnedMethod = myPinnedMethod;
+        return null != pinnedMethod ? pinnedMethod : SoftReference.dereference(myMethod);
     }
 
     @Override
@@ -303,8 +369,16 @@ public class RLightMethodBuilder extends LightMethodBuilder implements Synthetic
 
     @Override
     public int hashCode() {
-        // should be constant because of RenameJavaMethodProcessor#renameElement and fixNameCollisionsWithInnerClassMethod(...)
-        return 1;
+        // has to survive RenameJavaMethodProcessor#renameElement and fixNameCollisionsWithInnerClassMethod(...),
+        // which is fine as setName(...) never changes the name of a generated method
+        int result = getName().hashCode();
+        final PsiClass containingClass = getContainingClass();
+        result = 31 * result + Objects.hashCode(null == containingClass ? null : containingClass.getQualifiedName());
+        for (PsiParameter parameter : getParameterList().getParameters()) {
+            result = 31 * result + parameter.getType().getCanonicalText().hashCode();
+        }
+        result = 31 * result + Objects.hashCode(myReturnTypeAsText);
+        return result;
     }
 
     @Override
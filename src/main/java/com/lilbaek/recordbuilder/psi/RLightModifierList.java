@@ -3,30 +3,30 @@ package com.lilbaek.recordbuilder.psi;
 import com.intellij.lang.Language;
 import com.intellij.lang.java.JavaLanguage;
 import com.intellij.openapi.util.TextRange;
-import com.intellij.psi.JavaPsiFacade;
 import com.intellij.psi.PsiAnnotation;
-import com.intellij.psi.PsiElementFactory;
 import com.intellij.psi.PsiManager;
 import com.intellij.psi.PsiModifier;
+import com.intellij.psi.PsiModifierList;
 import com.intellij.psi.SyntheticElement;
 import com.intellij.psi.impl.light.LightModifierList;
+import com.intellij.util.ArrayUtil;
+import com.intellij.util.ArrayUtilRt;
 import com.intellij.util.IncorrectOperationException;
-import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
 
 public class RLightModifierList extends LightModifierList implements SyntheticElement {
-    private static final Set<String> ALL_MODIFIERS = ContainerUtil.set(PsiModifier.MODIFIERS);
+    // every known modifier is stored as one bit, the set inherited from LightModifierList is only used for anything else
+    private static final String[] ALL_MODIFIERS = ArrayUtil.append(PsiModifier.MODIFIERS, PsiModifier.PACKAGE_LOCAL);
 
-    private final Map<String, PsiAnnotation> myAnnotations;
-    private final Set<String> myImplicitModifiers;
+    private int myModifiers;
+    private int myImplicitModifiers;
+    private String[] myAnnotationNames = ArrayUtilRt.EMPTY_STRING_ARRAY;
+    private PsiAnnotation[] myAnnotations = PsiAnnotation.EMPTY_ARRAY;
 
     public RLightModifierList(@NotNull PsiManager manager) {
         this(manager, JavaLanguage.INSTANCE);
@@ -37,18 +37,86 @@ public class RLightModifierList extends LightModifierList implements SyntheticEl
     }
 
     public RLightModifierList(PsiManager manager, final Language language, Collection<String> implicitModifiers, String... modifiers) {
-        super(manager, language, modifiers);
-        this.myAnnotations = new HashMap<>();
-        this.myImplicitModifiers = new HashSet<>(implicitModifiers);
+        super(manager, language);
+        for (String implicitModifier : implicitModifiers) {
+            myImplicitModifiers |= getModifierBit(implicitModifier);
+        }
+        for (String modifier : modifiers) {
+            addModifier(modifier);
+        }
+    }
+
+    private static int getModifierBit(@NotNull String modifier) {
+        final int index = ArrayUtil.indexOf(ALL_MODIFIERS, modifier);
+        return index < 0 ? 0 : 1 << index;
     }
 
     @Override
     public boolean hasModifierProperty(@NotNull String name) {
-        return myImplicitModifiers.contains(name) || super.hasModifierProperty(name);
+        return ((myImplicitModifiers | myModifiers) & getModifierBit(name)) != 0 || super.hasModifierProperty(name);
+    }
+
+    @Override
+    public boolean hasExplicitModifier(@NotNull String name) {
+        return (myModifiers & getModifierBit(name)) != 0 || super.hasExplicitModifier(name);
+    }
+
+    @Override
+    public void addModifier(String modifier) {
+        final int modifierBit = getModifierBit(modifier);
+        if (modifierBit == 0) {
+            super.addModifier(modifier);
+        } else {
+            myModifiers |= modifierBit;
+        }
+    }
+
+    @Override
+    public void copyModifiers(PsiModifierList modifierList) {
+        if (null == modifierList) {
+            return;
+        }
+        for (String modifier : ALL_MODIFIERS) {
+            if (modifierList.hasExplicitModifier(modifier)) {
+                addModifier(modifier);
+            }
+        }
+    }
+
+    @Override
+    public void clearModifiers() {
+        myModifiers = 0;
+        super.clearModifiers();
+    }
+
+    @Override
+    public String @NotNull [] getModifiers() {
+        final String[] otherModifiers = super.getModifiers();
+        if (myModifiers == 0) {
+            return otherModifiers;
+        }
+        final String[] result = new String[Integer.bitCount(myModifiers) + otherModifiers.length];
+        int count = 0;
+        for (int i = 0; i < ALL_MODIFIERS.length; i++) {
+            if ((myModifiers & (1 << i)) != 0) {
+                result[count++] = ALL_MODIFIERS[i];
+            }
+        }
+        System.arraycopy(otherModifiers, 0, result, count, otherModifiers.length);
+        return result;
+    }
+
+    @Override
+    public String getText() {
+        final StringBuilder builder = new StringBuilder();
+        for (String modifier : getModifiers()) {
+            builder.append(modifier).append(' ');
+        }
+        return builder.toString();
     }
 
     public void addImplicitModifierProperty(@PsiModifier.ModifierConstant @NotNull @NonNls String implicitModifier) {
-        myImplicitModifiers.add(implicitModifier);
+        myImplicitModifiers |= getModifierBit(implicitModifier);
     }
 
     @Override
@@ -63,24 +131,18 @@ public class RLightModifierList extends LightModifierList implements SyntheticEl
     }
 
     private void removeModifier(@PsiModifier.ModifierConstant @NotNull @NonNls String name) {
-        final Collection<String> myModifiers = collectAllModifiers();
-        myModifiers.remove(name);
-
-        clearModifiers();
-
-        for (String modifier : myModifiers) {
-            addModifier(modifier);
+        final int modifierBit = getModifierBit(name);
+        if (modifierBit != 0) {
+            myModifiers &= ~modifierBit;
+            return;
         }
-    }
-
-    private Collection<String> collectAllModifiers() {
-        Collection<String> result = new HashSet<>();
-        for (@PsiModifier.ModifierConstant String modifier : ALL_MODIFIERS) {
-            if (hasExplicitModifier(modifier)) {
-                result.add(modifier);
+        final String[] otherModifiers = super.getModifiers();
+        super.clearModifiers();
+        for (String modifier : otherModifiers) {
+            if (!modifier.equals(name)) {
+                super.addModifier(modifier);
             }
         }
-        return result;
     }
 
     @Override
@@ -91,25 +153,26 @@ public class RLightModifierList extends LightModifierList implements SyntheticEl
     @Override
     @NotNull
     public PsiAnnotation addAnnotation(@NotNull @NonNls String qualifiedName) {
-        final PsiElementFactory elementFactory = JavaPsiFacade.getElementFactory(getProject());
-        final PsiAnnotation psiAnnotation = elementFactory.createAnnotationFromText('@' + qualifiedName, null);
-        myAnnotations.put(qualifiedName, psiAnnotation);
+        final PsiAnnotation psiAnnotation = RLightAnnotationCache.getInstance(getProject()).getAnnotation(qualifiedName);
+        final int index = ArrayUtil.indexOf(myAnnotationNames, qualifiedName);
+        if (index < 0) {
+            myAnnotationNames = ArrayUtil.append(myAnnotationNames, qualifiedName);
+            myAnnotations = ArrayUtil.append(myAnnotations, psiAnnotation, PsiAnnotation.ARRAY_FACTORY);
+        } else {
+            myAnnotations[index] = psiAnnotation;
+        }
         return psiAnnotation;
     }
 
     @Override
     public PsiAnnotation findAnnotation(@NotNull String qualifiedName) {
-        return myAnnotations.get(qualifiedName);
+        final int index = ArrayUtil.indexOf(myAnnotationNames, qualifiedName);
+        return index < 0 ? null : myAnnotations[index];
     }
 
     @Override
     public PsiAnnotation @NotNull [] getAnnotations() {
-        PsiAnnotation[] result = PsiAnnotation.EMPTY_ARRAY;
-        if (!myAnnotations.isEmpty()) {
-            Collection<PsiAnnotation> annotations = myAnnotations.values();
-            result = annotations.toArray(PsiAnnotation.EMPTY_ARRAY);
-        }
-        return result;
+        return myAnnotations.length == 0 ? PsiAnnotation.EMPTY_ARRAY : myAnnotations.clone();
     }
 
     @Override
@@ -133,11 +196,12 @@ public class RLightModifierList extends LightModifierList implements SyntheticEl
 
         RLightModifierList that = (RLightModifierList) o;
 
-        return myAnnotations.equals(that.myAnnotations);
+        // annotation instances are shared per qualified name, comparing the names is enough
+        return Arrays.equals(myAnnotationNames, that.myAnnotationNames);
     }
 
     @Override
     public int hashCode() {
-        return myAnnotations.hashCode();
+        return Arrays.hashCode(myAnnotationNames);
     }
 }
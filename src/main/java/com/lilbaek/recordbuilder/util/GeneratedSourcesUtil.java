@@ -0,0 +1,54 @@
+package com.lilbaek.recordbuilder.util;
+
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ContentEntry;
+import com.intellij.openapi.roots.ModuleRootManager;
+import com.intellij.openapi.roots.ProjectRootModificationTracker;
+import com.intellij.openapi.roots.SourceFolder;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.GlobalSearchScopesCore;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jps.model.java.JavaModuleSourceRootTypes;
+import org.jetbrains.jps.model.java.JavaSourceRootProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class GeneratedSourcesUtil {
+    /**
+     * Scope of all source roots marked as generated, e.g. the annotation processor output imported from Gradle or Maven.
+     *
+     * @return null if the project has no generated source roots
+     */
+    @Nullable
+    public static GlobalSearchScope getGeneratedSourcesScope(@NotNull Project project) {
+        return CachedValuesManager.getManager(project).getCachedValue(project, () -> {
+            final List<VirtualFile> roots = new ArrayList<>();
+            for (Module module : ModuleManager.getInstance(project).getModules()) {
+                for (ContentEntry contentEntry : ModuleRootManager.getInstance(module).getContentEntries()) {
+                    for (SourceFolder sourceFolder : contentEntry.getSourceFolders(JavaModuleSourceRootTypes.SOURCES)) {
+                        final VirtualFile root = sourceFolder.getFile();
+                        if (null != root && isForGeneratedSources(sourceFolder)) {
+                            roots.add(root);
+                        }
+                    }
+                }
+            }
+            final GlobalSearchScope scope = roots.isEmpty() ? null
+                            : GlobalSearchScopesCore.directoriesScope(project, true, VfsUtilCore.toVirtualFileArray(roots));
+            return CachedValueProvider.Result.create(scope, ProjectRootModificationTracker.getInstance(project));
+        });
+    }
+
+    private static boolean isForGeneratedSources(@NotNull SourceFolder sourceFolder) {
+        final JavaSourceRootProperties properties = sourceFolder.getJpsElement().getProperties(JavaModuleSourceRootTypes.SOURCES);
+        return null != properties && properties.isForGeneratedSources();
+    }
+}
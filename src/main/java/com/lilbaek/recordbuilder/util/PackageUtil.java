@@ -1,10 +1,70 @@
 package com.lilbaek.recordbuilder.util;
 
+import com.intellij.lang.java.JavaLanguage;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.module.ModuleUtilCore;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootModificationTracker;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.impl.file.impl.JavaFileManager;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import org.jetbrains.annotations.NotNull;
 
 public class PackageUtil {
+    public static final String RECORD_BUILDER_ANNOTATION = "com.lilbaek.recordbuilder.RecordBuilder";
+
+    /**
+     * True if at least one module of the project can resolve the {@link #RECORD_BUILDER_ANNOTATION}.
+     */
     public static boolean hasRecordBuilderPackage(@NotNull Project project) {
-        return true; // TODO
+        if (DumbService.isDumb(project)) {
+            // can not be checked without the indices, the snapshot of annotated records is used meanwhile
+            return true;
+        }
+        return CachedValuesManager.getManager(project).getCachedValue(project, () -> {
+            boolean result = false;
+            for (Module module : ModuleManager.getInstance(project).getModules()) {
+                ProgressManager.checkCanceled();
+                if (hasRecordBuilderPackage(module)) {
+                    result = true;
+                    break;
+                }
+            }
+            return CachedValueProvider.Result.create(result, getDependencies(project));
+        });
+    }
+
+    /**
+     * True if the {@link #RECORD_BUILDER_ANNOTATION} is resolvable from the given module, its dependencies or libraries, test scoped ones included.
+     * Only the class index is asked, going through the element finders would end up in our own finder again.
+     */
+    public static boolean hasRecordBuilderPackage(@NotNull Module module) {
+        final Project project = module.getProject();
+        if (DumbService.isDumb(project)) {
+            return true;
+        }
+        return CachedValuesManager.getManager(project).getCachedValue(module, () -> CachedValueProvider.Result.create(
+                        null != JavaFileManager.getInstance(project).findClass(RECORD_BUILDER_ANNOTATION, module.getModuleWithDependenciesAndLibrariesScope(true)),
+                        getDependencies(project)));
+    }
+
+    /**
+     * The annotation can come with a library, so root changes count, or as a source class added or removed later, so Java changes do too.
+     */
+    private static Object @NotNull [] getDependencies(@NotNull Project project) {
+        return new Object[]{ProjectRootModificationTracker.getInstance(project), PsiModificationTracker.getInstance(project).forLanguage(JavaLanguage.INSTANCE)};
+    }
+
+    /**
+     * Checks the module of the element, elements outside of any module (e.g. in libraries) fall back to the project wide check.
+     */
+    public static boolean hasRecordBuilderPackage(@NotNull PsiElement element) {
+        final Module module = ModuleUtilCore.findModuleForPsiElement(element);
+        return null == module ? hasRecordBuilderPackage(element.getProject()) : hasRecordBuilderPackage(module);
     }
 }
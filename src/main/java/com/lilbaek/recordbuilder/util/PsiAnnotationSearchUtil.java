@@ -46,6 +46,22 @@ public class PsiAnnotationSearchUtil {
         return StringUtil.notNullize(null == referenceElement ? null : referenceElement.getReferenceName());
     }
 
+    /**
+     * Finds an annotation by the simple name it is written with, without resolving anything. Works while indices are not ready.
+     */
+    @Nullable
+    public static PsiAnnotation findAnnotationBySimpleName(@NotNull PsiModifierListOwner modifierListOwner, @NotNull String annotationName) {
+        final PsiModifierList modifierList = modifierListOwner.getModifierList();
+        if (null != modifierList) {
+            for (PsiAnnotation psiAnnotation : modifierList.getAnnotations()) {
+                if (annotationName.equals(getSimpleNameOf(psiAnnotation))) {
+                    return psiAnnotation;
+                }
+            }
+        }
+        return null;
+    }
+
     public static boolean checkAnnotationsSimpleNameExistsIn(@NotNull PsiModifierListOwner modifierListOwner,
                     @NotNull Collection<String> annotationNames) {
         final PsiModifierList modifierList = modifierListOwner.getModifierList();
@@ -0,0 +1,99 @@
+package com.lilbaek.recordbuilder;
+
+import com.intellij.codeInsight.lookup.LookupManager;
+import com.intellij.lang.annotation.HighlightSeverity;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiMethod;
+import com.intellij.testFramework.PlatformTestUtil;
+import com.intellij.util.ThrowableRunnable;
+import org.jetbrains.annotations.NonNls;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Time and allocation budgets for the editor features that resolve builders the most.
+ * Allocations are those of the test thread, the budgets leave room for the platform but catch a builder model that grows per call.
+ * Not part of {@code check}, the suite runs through {@code ./gradlew performanceTest} until its budgets are measured on the CI machines.
+ */
+public class RecordBuilderPerformanceTest extends RecordBuilderTestCase {
+    private static final int RECORDS = 50;
+    private static final int COMPONENTS = 10;
+    private static final int CHAINS = 500;
+
+    private static final long MB = 1024 * 1024;
+
+    public void testHighlightingBuilderChains() {
+        addAnnotation();
+        for (int i = 0; i < RECORDS; i++) {
+            addRecord("foo", "Record" + i, COMPONENTS);
+        }
+        final StringBuilder source = new StringBuilder("package foo;\n\nclass Usages {\n    void use() {\n");
+        for (int i = 0; i < CHAINS; i++) {
+            source.append("        Record").append(i % RECORDS).append(" record").append(i).append(" = ")
+                            .append(RecordBuilderTestUtil.builderChain("Record" + (i % RECORDS), COMPONENTS)).append(";\n");
+        }
+        source.append("    }\n}\n");
+        myFixture.configureByText("Usages.java", source.toString());
+
+        final ThrowableRunnable<Throwable> highlighting = () -> assertEmpty(myFixture.doHighlighting(HighlightSeverity.ERROR));
+        PlatformTestUtil.startPerformanceTest("highlighting " + CHAINS + " builder chains", 10_000, () -> assertAllocatedLess("highlighting", 1_500 * MB, highlighting))
+                        .setup(() -> PsiManager.getInstance(getProject()).dropPsiCaches())
+                        .assertTiming();
+    }
+
+    public void testCompletionAfterBuilder() {
+        addAnnotation();
+        addRecord("foo", "Person", 100);
+        myFixture.configureByText("Usage.java", """
+                        package foo;
+
+                        class Usage {
+                            void use() {
+                                PersonBuilder.builder().<caret>
+                            }
+                        }
+                        """);
+
+        final ThrowableRunnable<Throwable> completion = () -> {
+            myFixture.completeBasic();
+            assertContainsElements(myFixture.getLookupElementStrings(), RecordBuilderTestUtil.componentName(0), RecordBuilderTestUtil.componentName(99), "build");
+        };
+        PlatformTestUtil.startPerformanceTest("completion after builder()", 3_000, () -> assertAllocatedLess("completion", 300 * MB, completion))
+                        .setup(() -> {
+                            LookupManager.getInstance(getProject()).hideActiveLookup();
+                            PsiManager.getInstance(getProject()).dropPsiCaches();
+                        })
+                        .assertTiming();
+    }
+
+    public void testFindUsagesThroughBuilderSetter() {
+        addAnnotation();
+        addRecord("foo", "Person", COMPONENTS);
+        final int files = 10;
+        for (int file = 0; file < files; file++) {
+            final StringBuilder source = new StringBuilder("package foo;\n\nclass Usages" + file + " {\n    void use() {\n");
+            for (int i = 0; i < CHAINS / files; i++) {
+                source.append("        Person person").append(i).append(" = ").append(RecordBuilderTestUtil.builderChain("Person", COMPONENTS)).append(";\n");
+            }
+            source.append("    }\n}\n");
+            myFixture.addFileToProject("foo/Usages" + file + ".java", source.toString());
+        }
+        final PsiClass builder = myFixture.findClass("foo.PersonBuilder");
+        // the setter navigates to the record component it sets
+        final PsiMethod setter = builder.findMethodsByName(RecordBuilderTestUtil.componentName(0), false)[0];
+
+        final ThrowableRunnable<Throwable> findUsages = () -> assertSize(CHAINS, myFixture.findUsages(setter));
+        PlatformTestUtil.startPerformanceTest("find usages of a builder setter", 5_000, () -> assertAllocatedLess("find usages", 1_000 * MB, findUsages))
+                        .assertTiming();
+    }
+
+    private static void assertAllocatedLess(@NonNls @NotNull String what, long budget, @NotNull ThrowableRunnable<Throwable> runnable) throws Throwable {
+        final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long before = threadBean.getCurrentThreadAllocatedBytes();
+        runnable.run();
+        final long allocated = threadBean.getCurrentThreadAllocatedBytes() - before;
+        assertTrue(what + " allocated " + allocated / MB + " MB, the budget is " + budget / MB + " MB", allocated < budget);
+    }
+}
@@ -0,0 +1,57 @@
+package com.lilbaek.recordbuilder;
+
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.psi.PsiClass;
+import com.intellij.testFramework.LightProjectDescriptor;
+import com.intellij.testFramework.PsiTestUtil;
+import com.intellij.testFramework.fixtures.LightJavaCodeInsightFixtureTestCase;
+import org.jetbrains.annotations.NotNull;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public abstract class RecordBuilderTestCase extends LightJavaCodeInsightFixtureTestCase {
+    @Override
+    protected @NotNull LightProjectDescriptor getProjectDescriptor() {
+        return RecordBuilderTestUtil.JAVA_17;
+    }
+
+    protected void addAnnotation() {
+        myFixture.addClass(RecordBuilderTestUtil.ANNOTATION_SOURCE);
+    }
+
+    @NotNull
+    protected PsiClass addRecord(@NotNull String packageName, @NotNull String recordName, int components) {
+        return myFixture.addClass(RecordBuilderTestUtil.recordSource(packageName, recordName, components));
+    }
+
+    /**
+     * Compiles the sources, given by their path relative to the source root, and adds the classes as library of the module for this test only.
+     */
+    protected void addCompiledLibrary(@NotNull Map<String, String> sources) throws IOException {
+        final File root = FileUtil.createTempDirectory("compiled", null);
+        Disposer.register(getTestRootDisposable(), () -> FileUtil.delete(root));
+        final File classesRoot = new File(root, "classes");
+        FileUtil.createDirectory(classesRoot);
+        final List<File> files = new ArrayList<>();
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            final File file = new File(root, "src/" + source.getKey());
+            FileUtil.writeToFile(file, source.getValue());
+            files.add(file);
+        }
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull("tests have to run on a JDK", compiler);
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            assertTrue(compiler.getTask(null, fileManager, null, List.of("-d", classesRoot.getPath(), "--release", "17"), null,
+                            fileManager.getJavaFileObjectsFromFiles(files)).call());
+        }
+        PsiTestUtil.addLibrary(getTestRootDisposable(), getModule(), "compiled", root.getPath(), classesRoot.getName());
+    }
+}
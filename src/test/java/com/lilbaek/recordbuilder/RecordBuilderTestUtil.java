@@ -0,0 +1,101 @@
+package com.lilbaek.recordbuilder;
+
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.projectRoots.JavaSdk;
+import com.intellij.openapi.roots.ContentEntry;
+import com.intellij.openapi.roots.LanguageLevelModuleExtension;
+import com.intellij.openapi.roots.ModifiableRootModel;
+import com.intellij.pom.java.LanguageLevel;
+import com.intellij.testFramework.fixtures.DefaultLightProjectDescriptor;
+import com.intellij.util.SystemProperties;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Sources of the annotation and of generated records, shared by the tests and the benchmarks.
+ */
+public final class RecordBuilderTestUtil {
+    /**
+     * Java 17 module on the JDK running the tests, the mock JDKs of the platform are not part of the downloaded IDE.
+     */
+    public static final DefaultLightProjectDescriptor JAVA_17 = new DefaultLightProjectDescriptor(
+                    () -> JavaSdk.getInstance().createJdk("java 17", SystemProperties.getJavaHome(), false)) {
+        @Override
+        public void configureModule(@NotNull Module module, @NotNull ModifiableRootModel model, @NotNull ContentEntry contentEntry) {
+            super.configureModule(module, model, contentEntry);
+            model.getModuleExtension(LanguageLevelModuleExtension.class).setLanguageLevel(LanguageLevel.JDK_17);
+        }
+    };
+
+    public static final String ANNOTATION_SOURCE = """
+                    package com.lilbaek.recordbuilder;
+
+                    import java.lang.annotation.ElementType;
+                    import java.lang.annotation.Retention;
+                    import java.lang.annotation.RetentionPolicy;
+                    import java.lang.annotation.Target;
+
+                    @Retention(RetentionPolicy.SOURCE)
+                    @Target(ElementType.TYPE)
+                    public @interface RecordBuilder {
+                    }
+                    """;
+
+    private RecordBuilderTestUtil() {
+    }
+
+    /**
+     * An annotated record with the given number of components, the component types cycle through {@code String}, {@code int} and {@code List<String>}.
+     */
+    @NotNull
+    public static String recordSource(@NotNull String packageName, @NotNull String recordName, int components) {
+        final StringBuilder result = new StringBuilder();
+        result.append("package ").append(packageName).append(";\n\n");
+        result.append("import com.lilbaek.recordbuilder.RecordBuilder;\n\n");
+        result.append("@RecordBuilder\npublic record ").append(recordName).append('(');
+        for (int i = 0; i < components; i++) {
+            if (i > 0) {
+                result.append(", ");
+            }
+            result.append(componentType(i)).append(' ').append(componentName(i));
+        }
+        result.append(") {\n}\n");
+        return result.toString();
+    }
+
+    /**
+     * A {@code builder()...build()} chain setting every component of a record created by {@link #recordSource(String, String, int)}.
+     */
+    @NotNull
+    public static String builderChain(@NotNull String recordName, int components) {
+        final StringBuilder result = new StringBuilder();
+        result.append(recordName).append("Builder.builder()");
+        for (int i = 0; i < components; i++) {
+            result.append('.').append(componentName(i)).append('(').append(componentValue(i)).append(')');
+        }
+        result.append(".build()");
+        return result.toString();
+    }
+
+    @NotNull
+    public static String componentName(int index) {
+        return "component" + index;
+    }
+
+    @NotNull
+    private static String componentType(int index) {
+        return switch (index % 3) {
+            case 0 -> "String";
+            case 1 -> "int";
+            default -> "java.util.List<String>";
+        };
+    }
+
+    @NotNull
+    private static String componentValue(int index) {
+        return switch (index % 3) {
+            case 0 -> "\"value\"";
+            case 1 -> String.valueOf(index);
+            default -> "java.util.List.of()";
+        };
+    }
+}
@@ -0,0 +1,141 @@
+package com.lilbaek.recordbuilder.finder;
+
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiCompiledElement;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiPackage;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.PsiShortNamesCache;
+import com.lilbaek.recordbuilder.RecordBuilderTestCase;
+import com.intellij.testFramework.PsiTestUtil;
+import com.lilbaek.recordbuilder.RecordBuilderTestUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jps.model.java.JavaSourceRootType;
+import org.jetbrains.jps.model.java.JpsJavaExtensionService;
+
+import java.util.List;
+import java.util.Map;
+
+public class RecordBuilderFinderTest extends RecordBuilderTestCase {
+    // records in class files only carry annotations that are retained there
+    private static final String CLASS_RETAINED_ANNOTATION_SOURCE = RecordBuilderTestUtil.ANNOTATION_SOURCE.replace("RetentionPolicy.SOURCE", "RetentionPolicy.CLASS");
+
+    public void testFindsTheBuilderOfAnAnnotatedRecord() {
+        addAnnotation();
+        addRecord("foo", "Person", 2);
+
+        final PsiClass builder = findClass("foo.PersonBuilder");
+        assertNotNull(builder);
+        assertSize(1, builder.findMethodsByName(RecordBuilderTestUtil.componentName(0), false));
+        assertSize(1, builder.findMethodsByName(RecordBuilderTestUtil.componentName(1), false));
+        assertSize(1, builder.findMethodsByName("build", false));
+        assertSize(1, builder.findMethodsByName("builder", false));
+    }
+
+    public void testIgnoresRecordsWithoutTheAnnotation() {
+        addAnnotation();
+        myFixture.addClass("package foo; public record Plain(String name) {}");
+
+        assertNull(findClass("foo.PlainBuilder"));
+    }
+
+    public void testIgnoresRecordsWhenTheAnnotationIsNotResolvable() {
+        addRecord("foo", "Person", 1);
+
+        // RecordBuilder itself ends with the builder suffix, resolving it must not end up in the finder again
+        assertNull(findClass("foo.PersonBuilder"));
+    }
+
+    public void testKeepsTheBuilderUntilTheRecordChanges() {
+        addAnnotation();
+        final PsiClass record = addRecord("foo", "Person", 1);
+
+        final PsiClass builder = findClass("foo.PersonBuilder");
+        assertNotNull(builder);
+        assertSame(builder, findClass("foo.PersonBuilder"));
+
+        final PsiDocumentManager documentManager = PsiDocumentManager.getInstance(getProject());
+        final Document document = documentManager.getDocument(record.getContainingFile());
+        assertNotNull(document);
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> {
+            document.setText(RecordBuilderTestUtil.recordSource("foo", "Person", 2));
+            documentManager.commitDocument(document);
+        });
+
+        final PsiClass changed = findClass("foo.PersonBuilder");
+        assertNotNull(changed);
+        assertNotSame(builder, changed);
+        assertSize(1, changed.findMethodsByName(RecordBuilderTestUtil.componentName(1), false));
+    }
+
+    public void testListsBuildersOfAPackage() {
+        addAnnotation();
+        addRecord("foo", "Person", 1);
+
+        final PsiPackage psiPackage = JavaPsiFacade.getInstance(getProject()).findPackage("foo");
+        assertNotNull(psiPackage);
+        final PsiClass builder = findClass("foo.PersonBuilder");
+        assertContainsElements(List.of(psiPackage.getClasses()), builder);
+    }
+
+    public void testFindsBuildersByShortName() {
+        addAnnotation();
+        addRecord("foo", "Person", 1);
+        addRecord("bar", "Person", 1);
+
+        final PsiShortNamesCache cache = PsiShortNamesCache.getInstance(getProject());
+        assertSize(2, cache.getClassesByName("PersonBuilder", GlobalSearchScope.allScope(getProject())));
+        assertEmpty(cache.getClassesByName("PersonBuilderBuilder", GlobalSearchScope.allScope(getProject())));
+        assertContainsElements(List.of(cache.getAllClassNames()), "PersonBuilder");
+    }
+
+    public void testFindsTheBuilderOfACompiledRecord() throws Exception {
+        addCompiledLibrary(Map.of(
+                        "com/lilbaek/recordbuilder/RecordBuilder.java", CLASS_RETAINED_ANNOTATION_SOURCE,
+                        "lib/Person.java", RecordBuilderTestUtil.recordSource("lib", "Person", 2)));
+
+        final PsiClass record = findClass("lib.Person");
+        assertInstanceOf(record, PsiCompiledElement.class);
+        final PsiClass builder = findClass("lib.PersonBuilder");
+        assertNotNull(builder);
+        assertSize(1, builder.findMethodsByName(RecordBuilderTestUtil.componentName(1), false));
+        assertSize(1, builder.findMethodsByName("build", false));
+    }
+
+    public void testDefersToTheBuilderCompiledNextToTheRecord() throws Exception {
+        addCompiledLibrary(Map.of(
+                        "com/lilbaek/recordbuilder/RecordBuilder.java", CLASS_RETAINED_ANNOTATION_SOURCE,
+                        "lib/Person.java", RecordBuilderTestUtil.recordSource("lib", "Person", 1),
+                        "lib/PersonBuilder.java", "package lib; public class PersonBuilder {}"));
+
+        assertNull(new RecordBuilderFinder().findClass("lib.PersonBuilder", GlobalSearchScope.allScope(getProject())));
+        assertInstanceOf(findClass("lib.PersonBuilder"), PsiCompiledElement.class);
+    }
+
+    public void testDefersToTheBuilderInGeneratedSources() throws Exception {
+        addAnnotation();
+        addRecord("foo", "Person", 1);
+        final VirtualFile generatedRoot = myFixture.getTempDirFixture().findOrCreateDir("generated");
+        PsiTestUtil.addSourceRoot(getModule(), generatedRoot, JavaSourceRootType.SOURCE,
+                        JpsJavaExtensionService.getInstance().createSourceRootProperties("", true));
+        Disposer.register(getTestRootDisposable(), () -> PsiTestUtil.removeSourceRoot(getModule(), generatedRoot));
+        final PsiFile generated = myFixture.addFileToProject("generated/foo/PersonBuilder.java", "package foo; public class PersonBuilder {}");
+
+        assertNull(new RecordBuilderFinder().findClass("foo.PersonBuilder", GlobalSearchScope.allScope(getProject())));
+        final PsiClass builder = findClass("foo.PersonBuilder");
+        assertNotNull(builder);
+        assertEquals(generated, builder.getContainingFile());
+    }
+
+    @Nullable
+    private PsiClass findClass(@NotNull String qualifiedName) {
+        return JavaPsiFacade.getInstance(getProject()).findClass(qualifiedName, GlobalSearchScope.allScope(getProject()));
+    }
+}
@@ -0,0 +1,126 @@
+package com.lilbaek.recordbuilder.index;
+
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.CommonProcessors;
+import com.lilbaek.recordbuilder.RecordBuilderTestCase;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RecordBuilderIndexTest extends RecordBuilderTestCase {
+    public void testIndexesAnnotatedRecordsByBuilderName() {
+        addAnnotation();
+        addRecord("foo", "Person", 1);
+        myFixture.addClass("package foo; public record Plain(String name) {}");
+
+        assertTrue(RecordBuilderIndex.isBuilderName(getProject(), "PersonBuilder"));
+        assertFalse(RecordBuilderIndex.isBuilderName(getProject(), "PlainBuilder"));
+        assertFalse(RecordBuilderIndex.isBuilderName(getProject(), "StringBuilder"));
+    }
+
+    public void testSkipsRecordsWithAnotherRecordBuilderAnnotation() {
+        addAnnotation();
+        myFixture.addClass("package io.soabase.recordbuilder.core; public @interface RecordBuilder {}");
+        myFixture.addClass("""
+                        package foo;
+
+                        import io.soabase.recordbuilder.core.RecordBuilder;
+
+                        @RecordBuilder
+                        public record Person(String name) {
+                        }
+                        """);
+
+        assertFalse(RecordBuilderIndex.isBuilderName(getProject(), "PersonBuilder"));
+    }
+
+    public void testIndexesNestedRecords() {
+        addAnnotation();
+        myFixture.addClass("""
+                        package foo;
+
+                        import com.lilbaek.recordbuilder.RecordBuilder;
+
+                        public class Outer {
+                            @RecordBuilder
+                            public record Inner(int value) {
+                            }
+                        }
+                        """);
+
+        final List<PsiClass> records = processBuilderRecords("InnerBuilder", null, GlobalSearchScope.allScope(getProject()));
+        assertSize(1, records);
+        assertEquals("foo.Outer.Inner", records.get(0).getQualifiedName());
+    }
+
+    public void testFiltersBuilderRecordsByPackage() {
+        addAnnotation();
+        addRecord("foo", "Person", 1);
+        addRecord("bar", "Person", 1);
+
+        assertSize(2, processBuilderRecords("PersonBuilder", null, GlobalSearchScope.allScope(getProject())));
+        final List<PsiClass> records = processBuilderRecords("PersonBuilder", "bar", GlobalSearchScope.allScope(getProject()));
+        assertSize(1, records);
+        assertEquals("bar.Person", records.get(0).getQualifiedName());
+    }
+
+    public void testLoadsOnlyRecordsInsideTheScope() {
+        addAnnotation();
+        final PsiClass record = addRecord("foo", "Person", 1);
+
+        assertEmpty(processBuilderRecords("PersonBuilder", null, GlobalSearchScope.EMPTY_SCOPE));
+        assertEquals(List.of(record), processBuilderRecords("PersonBuilder", null, GlobalSearchScope.fileScope(record.getContainingFile())));
+    }
+
+    public void testProcessesRecordsOfPackage() {
+        addAnnotation();
+        final PsiClass person = addRecord("foo", "Person", 1);
+        final PsiClass address = addRecord("foo", "Address", 1);
+        addRecord("bar", "Other", 1);
+
+        final List<PsiClass> records = new ArrayList<>();
+        RecordBuilderIndex.processRecords(getProject(), "foo", GlobalSearchScope.allScope(getProject()), new CommonProcessors.CollectProcessor<>(records));
+        assertSameElements(records, person, address);
+    }
+
+    public void testStopsWhenTheProcessorDoes() {
+        addAnnotation();
+        addRecord("foo", "Person", 1);
+        addRecord("bar", "Person", 1);
+
+        final List<PsiClass> records = new ArrayList<>();
+        assertFalse(RecordBuilderIndex.processBuilderRecords(getProject(), "PersonBuilder", null, GlobalSearchScope.allScope(getProject()), record -> {
+            records.add(record);
+            return false;
+        }));
+        assertSize(1, records);
+    }
+
+    public void testListsBuilderNames() {
+        addAnnotation();
+        addRecord("foo", "Person", 1);
+        addRecord("foo", "Address", 1);
+
+        final List<String> names = new ArrayList<>();
+        RecordBuilderIndex.processBuilderNames(getProject(), GlobalSearchScope.allScope(getProject()), null, new CommonProcessors.CollectProcessor<>(names));
+        assertContainsElements(names, "PersonBuilder", "AddressBuilder");
+    }
+
+    public void testCollectsRecordsForTheSnapshot() {
+        addAnnotation();
+        final PsiClass record = addRecord("foo", "Person", 1);
+
+        assertEquals(List.of(new RecordBuilderSnapshot.RecordEntry("foo", "Person", record.getContainingFile().getVirtualFile().getUrl())),
+                        RecordBuilderIndex.collectRecords(getProject()));
+    }
+
+    @NotNull
+    private List<PsiClass> processBuilderRecords(@NotNull String builderName, @Nullable String packageName, @NotNull GlobalSearchScope scope) {
+        final List<PsiClass> result = new ArrayList<>();
+        RecordBuilderIndex.processBuilderRecords(getProject(), builderName, packageName, scope, new CommonProcessors.CollectProcessor<>(result));
+        return result;
+    }
+}
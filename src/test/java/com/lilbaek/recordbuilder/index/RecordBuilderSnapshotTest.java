@@ -0,0 +1,91 @@
+package com.lilbaek.recordbuilder.index;
+
+import com.intellij.openapi.application.impl.NonBlockingReadActionImpl;
+import com.intellij.openapi.project.DumbServiceImpl;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.CommonProcessors;
+import com.intellij.testFramework.PlatformTestUtil;
+import com.lilbaek.recordbuilder.RecordBuilderTestCase;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RecordBuilderSnapshotTest extends RecordBuilderTestCase {
+    public void testResolvesRecordsFromTheSnapshot() {
+        final PsiClass record = addRecord("foo", "Person", 1);
+        final RecordBuilderSnapshot snapshot = new RecordBuilderSnapshot(getProject());
+        snapshot.update(List.of(entry(record)));
+
+        assertTrue(snapshot.getBuilderNames().containsKey("PersonBuilder"));
+
+        final List<PsiClass> records = new ArrayList<>();
+        snapshot.processBuilderRecords("PersonBuilder", null, GlobalSearchScope.allScope(getProject()), new CommonProcessors.CollectProcessor<>(records));
+        assertEquals(List.of(record), records);
+
+        records.clear();
+        snapshot.processBuilderRecords("PersonBuilder", "bar", GlobalSearchScope.allScope(getProject()), new CommonProcessors.CollectProcessor<>(records));
+        assertEmpty(records);
+
+        snapshot.processRecords("foo", null, GlobalSearchScope.allScope(getProject()), new CommonProcessors.CollectProcessor<>(records));
+        assertEquals(List.of(record), records);
+    }
+
+    public void testSkipsRecordsOfFilesThatAreGone() {
+        final RecordBuilderSnapshot snapshot = new RecordBuilderSnapshot(getProject());
+        snapshot.update(List.of(new RecordBuilderSnapshot.RecordEntry("foo", "Person", "temp:///src/foo/Missing.java")));
+
+        assertEmpty(snapshot.getBuilderNames().keySet());
+    }
+
+    public void testUpdateWithEqualRecordsKeepsTheState() {
+        final PsiClass record = addRecord("foo", "Person", 1);
+        final RecordBuilderSnapshot snapshot = new RecordBuilderSnapshot(getProject());
+        snapshot.update(List.of(entry(record)));
+        final RecordBuilderSnapshot.SnapshotState state = snapshot.getState();
+
+        snapshot.update(new ArrayList<>(List.of(entry(record))));
+        assertSame(state, snapshot.getState());
+    }
+
+    public void testUpdateReplacesTheBuilderNames() {
+        final PsiClass person = addRecord("foo", "Person", 1);
+        final PsiClass address = addRecord("foo", "Address", 1);
+        final RecordBuilderSnapshot snapshot = new RecordBuilderSnapshot(getProject());
+
+        snapshot.update(List.of(entry(person)));
+        assertSameElements(snapshot.getBuilderNames().keySet(), "PersonBuilder");
+
+        snapshot.update(List.of(entry(address)));
+        assertSameElements(snapshot.getBuilderNames().keySet(), "AddressBuilder");
+    }
+
+    public void testAnswersLookupsWhileIndexing() {
+        final PsiClass record = addRecord("foo", "Person", 1);
+        final RecordBuilderSnapshot snapshot = RecordBuilderSnapshot.getInstance(getProject());
+        final RecordBuilderSnapshot.SnapshotState state = snapshot.getState();
+        snapshot.update(List.of(entry(record)));
+        DumbServiceImpl.getInstance(getProject()).setDumb(true);
+        try {
+            assertTrue(RecordBuilderIndex.isBuilderName(getProject(), "PersonBuilder"));
+            assertFalse(RecordBuilderIndex.isBuilderName(getProject(), "AddressBuilder"));
+
+            final List<PsiClass> records = new ArrayList<>();
+            RecordBuilderIndex.processBuilderRecords(getProject(), "PersonBuilder", "foo", GlobalSearchScope.allScope(getProject()),
+                            new CommonProcessors.CollectProcessor<>(records));
+            assertEquals(List.of(record), records);
+        } finally {
+            DumbServiceImpl.getInstance(getProject()).setDumb(false);
+            // leaving dumb mode refreshes the snapshot in the background, it has to be done before the state of the shared project is restored
+            PlatformTestUtil.dispatchAllEventsInIdeEventQueue();
+            NonBlockingReadActionImpl.waitForAsyncTaskCompletion();
+            snapshot.loadState(state);
+        }
+    }
+
+    @NotNull
+    private static RecordBuilderSnapshot.RecordEntry entry(@NotNull PsiClass record) {
+        return new RecordBuilderSnapshot.RecordEntry("foo", record.getName(), record.getContainingFile().getVirtualFile().getUrl());
+    }
+}
@@ -0,0 +1,58 @@
+package com.lilbaek.recordbuilder.psi;
+
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiType;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.lilbaek.recordbuilder.RecordBuilderTestCase;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashSet;
+import java.util.List;
+
+public class RLightMethodBuilderTest extends RecordBuilderTestCase {
+    public void testEqualMethodsHaveEqualHashCodes() {
+        final PsiClass builder = addBuilder();
+        // the same type, once created from the class and once parsed from the text
+        final PsiType string = PsiType.getJavaLangString(getPsiManager(), GlobalSearchScope.allScope(getProject()));
+        final PsiType parsedString = JavaPsiFacade.getElementFactory(getProject()).createTypeFromText("String", builder);
+
+        final RLightMethodBuilder method = createMethod(builder, string);
+        final RLightMethodBuilder other = createMethod(builder, parsedString);
+        assertEquals(method, other);
+        assertEquals(method.hashCode(), other.hashCode());
+        assertSize(1, new HashSet<>(List.of(method, other)));
+    }
+
+    public void testHashCodeSurvivesRename() {
+        final PsiClass builder = addBuilder();
+        final RLightMethodBuilder method = createMethod(builder, PsiType.INT);
+        final int hashCode = method.hashCode();
+
+        method.setName("renamed");
+        assertEquals(hashCode, method.hashCode());
+    }
+
+    public void testMethodsWithOtherParameterTypesAreNotEqual() {
+        final PsiClass builder = addBuilder();
+
+        assertFalse(createMethod(builder, PsiType.INT).equals(createMethod(builder, PsiType.LONG)));
+    }
+
+    @NotNull
+    private PsiClass addBuilder() {
+        addAnnotation();
+        addRecord("foo", "Person", 3);
+        final PsiClass builder = myFixture.findClass("foo.PersonBuilder");
+        assertNotNull(builder);
+        return builder;
+    }
+
+    @NotNull
+    private RLightMethodBuilder createMethod(@NotNull PsiClass builder, @NotNull PsiType parameterType) {
+        return new RLightMethodBuilder(getPsiManager(), "value")
+                        .withContainingClass(builder)
+                        .withMethodReturnType(PsiType.VOID)
+                        .withParameter("value", parameterType);
+    }
+}